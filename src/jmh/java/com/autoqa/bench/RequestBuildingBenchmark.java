@@ -0,0 +1,38 @@
+package com.autoqa.bench;
+
+import com.autoqa.base.Config;
+import com.autoqa.utils.ApiClient;
+import io.restassured.specification.RequestSpecification;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сборка REST Assured запроса в ApiClient без отправки по сети
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestBuildingBenchmark {
+
+    @Benchmark
+    @Threads(1)
+    public RequestSpecification buildRequest() {
+        return ApiClient.buildRequest(Config.Token1, "ACTION", Config.API_KEY);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public RequestSpecification buildRequestContended() {
+        return ApiClient.buildRequest(Config.Token1, "ACTION", Config.API_KEY);
+    }
+}
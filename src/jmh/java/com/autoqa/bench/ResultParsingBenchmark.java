@@ -0,0 +1,60 @@
+package com.autoqa.bench;
+
+import com.autoqa.utils.ResponseView;
+import io.restassured.path.json.JsonPath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Разбор поля result: Groovy JsonPath (response.jsonPath().getString("result"))
+ * против чтения из байтов тела через ResponseView
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultParsingBenchmark {
+
+    private static final String BODY = "{\"result\":\"OK\"}";
+    private static final byte[] BODY_BYTES = BODY.getBytes(StandardCharsets.UTF_8);
+
+    @Benchmark
+    @Threads(1)
+    public String jsonPathResult() {
+        return JsonPath.from(BODY).getString("result");
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String jsonPathResultContended() {
+        return JsonPath.from(BODY).getString("result");
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String responseViewResult() {
+        return ResponseView.of(BODY_BYTES).result();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean responseViewFieldEquals() {
+        return ResponseView.of(BODY_BYTES).fieldEquals("result", "OK");
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String responseViewResultContended() {
+        return ResponseView.of(BODY_BYTES).result();
+    }
+}
@@ -0,0 +1,88 @@
+package com.autoqa.bench;
+
+import com.autoqa.base.Config;
+import com.autoqa.utils.ApiClient;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Полный цикл запрос-ответ через ApiClient к заглушке /endpoint внутри того же процесса.
+ * Заглушка отвечает мгновенно, поэтому замер показывает накладные расходы самого клиента.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {
+        "-Dbase.url=http://localhost:" + RoundTripBenchmark.PORT + "/endpoint",
+        "-Dsun.net.httpserver.nodelay=true"
+})
+@State(Scope.Benchmark)
+public class RoundTripBenchmark {
+
+    static final int PORT = 18080;
+    private static final byte[] OK_BODY = "{\"result\":\"OK\"}".getBytes(StandardCharsets.UTF_8);
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+
+    @Setup(Level.Trial)
+    public void startStub() throws IOException {
+        serverExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2);
+        server = HttpServer.create(new InetSocketAddress(PORT), 0);
+        server.createContext("/endpoint", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, OK_BODY.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(OK_BODY);
+            }
+        });
+        server.setExecutor(serverExecutor);
+        server.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopStub() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int sendPost() {
+        return ApiClient.sendPost(Config.Token1, "ACTION", Config.API_KEY).getStatusCode();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public int sendPostContended() {
+        return ApiClient.sendPost(Config.Token1, "ACTION", Config.API_KEY).getStatusCode();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int sendPostAsync() {
+        return ApiClient.sendPostAsync(Config.Token1, "ACTION", Config.API_KEY).join().statusCode();
+    }
+}
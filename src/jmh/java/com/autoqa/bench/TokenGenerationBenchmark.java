@@ -0,0 +1,48 @@
+package com.autoqa.bench;
+
+import com.autoqa.utils.TestDataGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость генерации токена в одном потоке и при конкуренции всех ядер
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenGenerationBenchmark {
+
+    @Benchmark
+    @Threads(1)
+    public String generateToken() {
+        return TestDataGenerator.generateToken();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String generateTokenContended() {
+        return TestDataGenerator.generateToken();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String generateFastToken() {
+        return TestDataGenerator.generateFastToken();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String generateFastTokenContended() {
+        return TestDataGenerator.generateFastToken();
+    }
+}
@@ -0,0 +1,36 @@
+package org.example;
+
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * Настройки приложения из системных свойств (те же, что у internal-0.0.1-SNAPSHOT.jar)
+ * @param secret ожидаемое значение заголовка X-Api-Key (-Dsecret)
+ * @param mockUrl базовый URL внешнего сервиса с /auth и /doAction (-Dmock)
+ * @param port порт HTTP-сервера (-Dserver.port)
+ * @param threads число потоков обработки запросов (-Dserver.threads)
+ * @param downstreamTimeout таймаут вызова внешнего сервиса (-Dmock.timeout.ms)
+ * @param sessionTtl время простоя, после которого сессия вытесняется; 0 — без вытеснения (-Dsession.ttl.sec)
+ * @param sessionStripes число полос блокировки хранилища сессий (-Dsession.stripes)
+ */
+public record AppConfig(String secret, URI mockUrl, int port, int threads, Duration downstreamTimeout,
+                        Duration sessionTtl, int sessionStripes) {
+
+    public static AppConfig fromSystemProperties() {
+        String secret = System.getProperty("secret");
+        if (secret == null || secret.isEmpty()) {
+            throw new IllegalStateException("Не задан API-ключ: укажите -Dsecret=<ключ>");
+        }
+        String mock = System.getProperty("mock", "http://localhost:8888/");
+        // /auth и /doAction разрешаются относительно mock, поэтому URL должен заканчиваться на /
+        URI mockUrl = URI.create(mock.endsWith("/") ? mock : mock + "/");
+        return new AppConfig(
+                secret,
+                mockUrl,
+                Integer.getInteger("server.port", 8080),
+                Integer.getInteger("server.threads", 200),
+                Duration.ofMillis(Long.getLong("mock.timeout.ms", 5000)),
+                Duration.ofSeconds(Long.getLong("session.ttl.sec", 1800)),
+                Integer.getInteger("session.stripes", 64));
+    }
+}
@@ -0,0 +1,57 @@
+package org.example;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Вызовы внешнего сервиса: POST /auth при LOGIN и POST /doAction при ACTION.
+ * Токен передаётся в теле как token=<token>; успехом считается любой код 2xx.
+ */
+public class DownstreamClient {
+
+    private final HttpClient httpClient;
+    private final URI authUri;
+    private final URI doActionUri;
+    private final Duration timeout;
+
+    public DownstreamClient(URI mockUrl, Duration timeout) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+        this.authUri = mockUrl.resolve("auth");
+        this.doActionUri = mockUrl.resolve("doAction");
+        this.timeout = timeout;
+    }
+
+    public boolean auth(String token) {
+        return call(authUri, token);
+    }
+
+    public boolean doAction(String token) {
+        return call(doActionUri, token);
+    }
+
+    private boolean call(URI uri, String token) {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString("token=" + URLEncoder.encode(token, StandardCharsets.UTF_8)))
+                .build();
+        try {
+            int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            return status >= 200 && status < 300;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            // Недоступность, таймаут или обрыв соединения считаются ошибкой внешнего сервиса
+            return false;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package org.example;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * POST /endpoint: проверка X-Api-Key, валидация токена и семантика LOGIN / ACTION / LOGOUT.
+ * Тела ответов закодированы заранее, чтобы обработка запроса не тратила время на JSON.
+ */
+public class EndpointHandler implements HttpHandler {
+
+    static final int TOKEN_LENGTH = 32;
+
+    private static final byte[] OK = json("{\"result\":\"OK\"}");
+    private static final byte[] INVALID_API_KEY = error("Missing or invalid API Key");
+    private static final byte[] INVALID_TOKEN = error("token: must match pattern [A-Z0-9]{32}");
+    private static final byte[] INVALID_ACTION = error("action: must be one of LOGIN, ACTION, LOGOUT");
+    private static final byte[] METHOD_NOT_ALLOWED = error("Method not allowed");
+    private static final byte[] ALREADY_LOGGED_IN = error("Token is already logged in");
+    private static final byte[] NOT_LOGGED_IN = error("Token not found");
+    private static final byte[] AUTH_FAILED = error("Authentication failed in external service");
+    private static final byte[] ACTION_FAILED = error("Action failed in external service");
+
+    private final String secret;
+    private final SessionStore sessions;
+    private final DownstreamClient downstream;
+
+    public EndpointHandler(String secret, SessionStore sessions, DownstreamClient downstream) {
+        this.secret = secret;
+        this.sessions = sessions;
+        this.downstream = downstream;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, METHOD_NOT_ALLOWED);
+                return;
+            }
+            if (!secret.equals(exchange.getRequestHeaders().getFirst("X-Api-Key"))) {
+                respond(exchange, 401, INVALID_API_KEY);
+                return;
+            }
+
+            String query = new String(body, StandardCharsets.UTF_8);
+            String token = formParam(query, "token");
+            String action = formParam(query, "action");
+            if (!isValidToken(token)) {
+                respond(exchange, 400, INVALID_TOKEN);
+                return;
+            }
+            if (action == null) {
+                respond(exchange, 400, INVALID_ACTION);
+                return;
+            }
+
+            switch (action) {
+                case "LOGIN" -> login(exchange, token);
+                case "ACTION" -> action(exchange, token);
+                case "LOGOUT" -> logout(exchange, token);
+                default -> respond(exchange, 400, INVALID_ACTION);
+            }
+        }
+    }
+
+    private void login(HttpExchange exchange, String token) throws IOException {
+        if (sessions.isActive(token)) {
+            respond(exchange, 409, ALREADY_LOGGED_IN);
+            return;
+        }
+        if (!downstream.auth(token)) {
+            respond(exchange, 500, AUTH_FAILED);
+            return;
+        }
+        // Два одновременных LOGIN могли пройти /auth оба: активирует только первый
+        if (!sessions.activate(token)) {
+            respond(exchange, 409, ALREADY_LOGGED_IN);
+            return;
+        }
+        respond(exchange, 200, OK);
+    }
+
+    private void action(HttpExchange exchange, String token) throws IOException {
+        if (!sessions.isActive(token)) {
+            // Код 400 ожидают оба набора проверок ACTION (ActionValidationTest и ActionIntegrationTest)
+            respond(exchange, 400, NOT_LOGGED_IN);
+            return;
+        }
+        if (!downstream.doAction(token)) {
+            respond(exchange, 500, ACTION_FAILED);
+            return;
+        }
+        respond(exchange, 200, OK);
+    }
+
+    private void logout(HttpExchange exchange, String token) throws IOException {
+        // Как и LOGIN, LOGOUT подтверждается во внешнем /auth; при отказе сессия остаётся открытой
+        if (!downstream.auth(token)) {
+            respond(exchange, 500, AUTH_FAILED);
+            return;
+        }
+        sessions.remove(token);
+        respond(exchange, 200, OK);
+    }
+
+    static boolean isValidToken(String token) {
+        if (token == null || token.length() != TOKEN_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < TOKEN_LENGTH; i++) {
+            char c = token.charAt(i);
+            if (!(c >= 'A' && c <= 'Z') && !(c >= '0' && c <= '9')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Значение параметра из application/x-www-form-urlencoded тела; null, если параметра нет
+     */
+    static String formParam(String form, String name) {
+        int start = 0;
+        while (start < form.length()) {
+            int end = form.indexOf('&', start);
+            if (end < 0) {
+                end = form.length();
+            }
+            int eq = form.indexOf('=', start);
+            if (eq > start && eq < end && form.regionMatches(start, name, 0, name.length()) && eq - start == name.length()) {
+                String value = form.substring(eq + 1, end);
+                // Декодирование нужно только для экранированных значений, обычный токен копируется как есть
+                return value.indexOf('%') < 0 && value.indexOf('+') < 0
+                        ? value
+                        : URLDecoder.decode(value, StandardCharsets.UTF_8);
+            }
+            start = end + 1;
+        }
+        return null;
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static byte[] error(String message) {
+        return json("{\"result\":\"ERROR\",\"message\":\"" + message + "\"}");
+    }
+
+    private static byte[] json(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -1,7 +1,44 @@
 package org.example;
 
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Локальная замена тестируемого приложения (internal-0.0.1-SNAPSHOT.jar):
+ * POST /endpoint с теми же параметрами запуска -Dsecret и -Dmock.
+ */
 public class Main {
-    public static void main(String[] args) {
-        System.out.println("Hello, World!");
+
+    public static void main(String[] args) throws IOException {
+        // Без TCP_NODELAY JDK HttpServer добавляет к ответу ~40 мс (алгоритм Нейгла + delayed ACK)
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        AppConfig config = AppConfig.fromSystemProperties();
+        HttpServer server = start(config);
+        System.out.println("Приложение запущено: http://localhost:" + server.getAddress().getPort()
+                + "/endpoint, mock=" + config.mockUrl());
+    }
+
+    public static HttpServer start(AppConfig config) throws IOException {
+        SessionStore sessions = new SessionStore(config.sessionStripes(), config.sessionTtl());
+        DownstreamClient downstream = new DownstreamClient(config.mockUrl(), config.downstreamTimeout());
+
+        ExecutorService executor = Executors.newFixedThreadPool(config.threads());
+        HttpServer server = HttpServer.create(new InetSocketAddress(config.port()), 1024);
+        server.createContext("/endpoint", new EndpointHandler(config.secret(), sessions, downstream));
+        server.setExecutor(executor);
+        server.start();
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(0);
+            executor.shutdownNow();
+            sessions.close();
+        }, "endpoint-shutdown"));
+        return server;
     }
-}
\ No newline at end of file
+}
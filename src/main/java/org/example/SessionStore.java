@@ -0,0 +1,320 @@
+package org.example;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Активные сессии: токен активируется при LOGIN и удаляется при LOGOUT.
+ * <p>
+ * Хранилище рассчитано на миллионы сессий: токен из 32 символов A-Z0-9 упакован в три long
+ * (base36, 12 + 12 + 8 символов) и лежит в открытой адресации без объектов на запись.
+ * Таблица разбита на независимые полосы со своей блокировкой, поэтому параллельные запросы
+ * к разным токенам почти не конкурируют. Сессии, к которым не обращались дольше TTL,
+ * считаются завершёнными и периодически вычищаются фоновым потоком.
+ */
+public class SessionStore implements AutoCloseable {
+
+    private static final int TOKEN_LENGTH = EndpointHandler.TOKEN_LENGTH;
+    private static final int INITIAL_STRIPE_CAPACITY = 64;
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final long ttlMillis;
+    private final LongAdder evicted = new LongAdder();
+    private final ScheduledExecutorService sweeper;
+
+    /**
+     * Хранилище без вытеснения по времени
+     */
+    public SessionStore() {
+        this(64, Duration.ZERO);
+    }
+
+    /**
+     * @param stripeCount число полос блокировки (округляется вверх до степени двойки)
+     * @param ttl время простоя, после которого сессия вытесняется; ноль отключает вытеснение
+     */
+    public SessionStore(int stripeCount, Duration ttl) {
+        int count = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.stripeMask = count - 1;
+        this.ttlMillis = ttl.toMillis();
+
+        if (ttlMillis > 0) {
+            long period = Math.max(1000, ttlMillis / 10);
+            sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "session-ttl-sweeper");
+                thread.setDaemon(true);
+                return thread;
+            });
+            sweeper.scheduleWithFixedDelay(this::evictExpired, period, period, TimeUnit.MILLISECONDS);
+        } else {
+            sweeper = null;
+        }
+    }
+
+    /**
+     * @return false, если токен уже активен (повторный LOGIN)
+     */
+    public boolean activate(String token) {
+        long k0 = pack(token, 0, 12);
+        long k1 = pack(token, 12, 24);
+        long k2 = pack(token, 24, TOKEN_LENGTH);
+        long hash = hash(k0, k1, k2);
+        Stripe stripe = stripeFor(hash);
+        long now = System.currentTimeMillis();
+        synchronized (stripe) {
+            int slot = stripe.find(k0, k1, k2, hash);
+            if (slot >= 0) {
+                if (!isExpired(stripe.stamps[slot], now)) {
+                    return false;
+                }
+                // Просроченная сессия ещё не вычищена: LOGIN открывает её заново
+                stripe.stamps[slot] = now;
+                evicted.increment();
+                return true;
+            }
+            stripe.insert(k0, k1, k2, hash, now);
+            return true;
+        }
+    }
+
+    /**
+     * Проверяет сессию и продлевает её TTL
+     */
+    public boolean isActive(String token) {
+        long k0 = pack(token, 0, 12);
+        long k1 = pack(token, 12, 24);
+        long k2 = pack(token, 24, TOKEN_LENGTH);
+        long hash = hash(k0, k1, k2);
+        Stripe stripe = stripeFor(hash);
+        long now = System.currentTimeMillis();
+        synchronized (stripe) {
+            int slot = stripe.find(k0, k1, k2, hash);
+            if (slot < 0) {
+                return false;
+            }
+            if (isExpired(stripe.stamps[slot], now)) {
+                stripe.deleteAt(slot);
+                evicted.increment();
+                return false;
+            }
+            stripe.stamps[slot] = now;
+            return true;
+        }
+    }
+
+    /**
+     * LOGOUT идемпотентен: удаление неактивного токена не считается ошибкой
+     */
+    public void remove(String token) {
+        long k0 = pack(token, 0, 12);
+        long k1 = pack(token, 12, 24);
+        long k2 = pack(token, 24, TOKEN_LENGTH);
+        long hash = hash(k0, k1, k2);
+        Stripe stripe = stripeFor(hash);
+        synchronized (stripe) {
+            int slot = stripe.find(k0, k1, k2, hash);
+            if (slot >= 0) {
+                stripe.deleteAt(slot);
+            }
+        }
+    }
+
+    /**
+     * Число хранимых сессий (включая просроченные, которые ещё не вычищены)
+     */
+    public int size() {
+        int total = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                total += stripe.size;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Сколько сессий вытеснено по TTL с момента запуска
+     */
+    public long evictedCount() {
+        return evicted.sum();
+    }
+
+    /**
+     * Вычищает просроченные сессии; полосы блокируются по очереди, а не все сразу
+     */
+    public void evictExpired() {
+        if (ttlMillis <= 0) {
+            return;
+        }
+        for (Stripe stripe : stripes) {
+            long now = System.currentTimeMillis();
+            synchronized (stripe) {
+                evicted.add(stripe.removeExpired(now, ttlMillis));
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    private boolean isExpired(long stamp, long now) {
+        return ttlMillis > 0 && now - stamp > ttlMillis;
+    }
+
+    private Stripe stripeFor(long hash) {
+        return stripes[(int) (hash >>> 40) & stripeMask];
+    }
+
+    /**
+     * Символы [from, to) токена как число в base36; токен уже проверен EndpointHandler.isValidToken
+     */
+    static long pack(String token, int from, int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            char c = token.charAt(i);
+            int digit;
+            if (c >= '0' && c <= '9') {
+                digit = c - '0';
+            } else if (c >= 'A' && c <= 'Z') {
+                digit = c - 'A' + 10;
+            } else {
+                throw new IllegalArgumentException("Недопустимый символ токена: " + c);
+            }
+            value = value * 36 + digit;
+        }
+        return value;
+    }
+
+    static long hash(long k0, long k1, long k2) {
+        long h = k0 * 0x9E3779B97F4A7C15L;
+        h = (h ^ k1) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ k2) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+
+    /**
+     * Полоса: таблица с линейным пробированием. Слот i занимает keys[3i..3i+2],
+     * stamps[i] хранит время последнего обращения (0 — слот свободен).
+     */
+    private static final class Stripe {
+
+        long[] keys = new long[INITIAL_STRIPE_CAPACITY * 3];
+        long[] stamps = new long[INITIAL_STRIPE_CAPACITY];
+        int mask = INITIAL_STRIPE_CAPACITY - 1;
+        int size;
+
+        int find(long k0, long k1, long k2, long hash) {
+            int i = (int) hash & mask;
+            while (stamps[i] != 0) {
+                int base = i * 3;
+                if (keys[base] == k0 && keys[base + 1] == k1 && keys[base + 2] == k2) {
+                    return i;
+                }
+                i = (i + 1) & mask;
+            }
+            return -1;
+        }
+
+        void insert(long k0, long k1, long k2, long hash, long stamp) {
+            // Заполненность не выше 1/2, чтобы цепочки пробирования оставались короткими
+            if ((size + 1) * 2 > stamps.length) {
+                rebuild(stamps.length * 2, 0, 0);
+            }
+            put(k0, k1, k2, hash, stamp);
+            size++;
+        }
+
+        private void put(long k0, long k1, long k2, long hash, long stamp) {
+            int i = (int) hash & mask;
+            while (stamps[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            int base = i * 3;
+            keys[base] = k0;
+            keys[base + 1] = k1;
+            keys[base + 2] = k2;
+            stamps[i] = stamp;
+        }
+
+        // Удаление со сдвигом назад: без «надгробий», цепочки не деградируют со временем
+        void deleteAt(int slot) {
+            int hole = slot;
+            int j = slot;
+            while (true) {
+                j = (j + 1) & mask;
+                if (stamps[j] == 0) {
+                    break;
+                }
+                int base = j * 3;
+                int home = (int) hash(keys[base], keys[base + 1], keys[base + 2]) & mask;
+                // Элемент j можно сдвинуть в дыру, только если его «домашний» слот не лежит между дырой и j
+                boolean between = hole <= j
+                        ? hole < home && home <= j
+                        : hole < home || home <= j;
+                if (!between) {
+                    System.arraycopy(keys, base, keys, hole * 3, 3);
+                    stamps[hole] = stamps[j];
+                    hole = j;
+                }
+            }
+            stamps[hole] = 0;
+            size--;
+        }
+
+        int removeExpired(long now, long ttlMillis) {
+            int before = size;
+            if (before == 0) {
+                return 0;
+            }
+            // Пересборка без просроченных записей заодно уменьшает таблицу после пиковой нагрузки
+            int live = 0;
+            for (long stamp : stamps) {
+                if (stamp != 0 && now - stamp <= ttlMillis) {
+                    live++;
+                }
+            }
+            if (live == before) {
+                return 0;
+            }
+            int capacity = INITIAL_STRIPE_CAPACITY;
+            while (live * 2 > capacity) {
+                capacity <<= 1;
+            }
+            rebuild(capacity, now, ttlMillis);
+            return before - size;
+        }
+
+        private void rebuild(int capacity, long now, long ttlMillis) {
+            long[] oldKeys = keys;
+            long[] oldStamps = stamps;
+            keys = new long[capacity * 3];
+            stamps = new long[capacity];
+            mask = capacity - 1;
+            size = 0;
+            for (int i = 0; i < oldStamps.length; i++) {
+                long stamp = oldStamps[i];
+                if (stamp == 0 || (ttlMillis > 0 && now - stamp > ttlMillis)) {
+                    continue;
+                }
+                int base = i * 3;
+                long k0 = oldKeys[base];
+                long k1 = oldKeys[base + 1];
+                long k2 = oldKeys[base + 2];
+                put(k0, k1, k2, hash(k0, k1, k2), stamp);
+                size++;
+            }
+        }
+    }
+}
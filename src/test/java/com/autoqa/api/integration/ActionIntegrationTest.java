@@ -2,14 +2,21 @@ package com.autoqa.api.integration;
 
 import com.autoqa.base.BaseTest;
 import com.autoqa.base.Config;
+import com.autoqa.base.DownstreamProfile;
+import com.autoqa.scenario.ScenarioRunner;
+import com.autoqa.scenario.Scenarios;
 import com.autoqa.utils.ApiClient;
+import com.autoqa.utils.ResponseView;
+import com.autoqa.utils.Attachments;
 import com.autoqa.utils.TestDataGenerator;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
 import io.qameta.allure.*;
 import io.restassured.response.Response;
 import org.junit.jupiter.api.*;
 
-import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
-import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import java.time.Duration;
+
+import static com.autoqa.base.StubRegistry.errorResponse;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @Epic("API")
@@ -20,24 +27,7 @@ public class ActionIntegrationTest extends BaseTest {
 
     private String lastUsedToken;
 
-    @BeforeEach
-    public void resetMocks() {
-        wireMockServer.resetAll();
-
-        // Заглушка внешнего сервиса /auth
-        wireMockServer.stubFor(post("/auth")
-                .willReturn(aResponse()
-                        .withStatus(200)
-                        .withHeader("Content-Type", "application/json")
-                        .withBody("{\"result\":\"OK\"}")));
-
-        // Заглушка внешнего сервиса /doAction
-        wireMockServer.stubFor(post("/doAction")
-                .willReturn(aResponse()
-                        .withStatus(200)
-                        .withHeader("Content-Type", "application/json")
-                        .withBody("{\"result\":\"OK\"}")));
-    }
+    // Внешние /auth и /doAction по умолчанию отвечают OK (см. StubRegistry.installDefaults)
 
     @AfterEach
     public void logoutAfterTest() {
@@ -46,10 +36,7 @@ public class ActionIntegrationTest extends BaseTest {
                     ApiClient.sendPost(lastUsedToken, "LOGOUT", Config.API_KEY);
 
             Allure.step("LOGOUT после теста", () -> {
-                Allure.addAttachment(
-                        "HTTP Response Body LOGOUT",
-                        logoutResponse.getBody().asString()
-                );
+                Attachments.response("HTTP Response Body LOGOUT", logoutResponse);
             });
 
             lastUsedToken = null;
@@ -70,10 +57,7 @@ public class ActionIntegrationTest extends BaseTest {
         lastUsedToken = token;
 
         Allure.step("Проверка успешного LOGIN", () -> {
-            Allure.addAttachment(
-                    "HTTP Response Body LOGIN",
-                    loginResponse.getBody().asString()
-            );
+            Attachments.response("HTTP Response Body LOGIN", loginResponse);
             assertEquals(200, loginResponse.getStatusCode());
         });
 
@@ -82,12 +66,33 @@ public class ActionIntegrationTest extends BaseTest {
                 ApiClient.sendPost(token, "ACTION", Config.API_KEY);
 
         Allure.step("Проверка ACTION", () -> {
-            Allure.addAttachment(
-                    "HTTP Response Body ACTION",
-                    actionResponse.getBody().asString()
-            );
+            Attachments.response("HTTP Response Body ACTION", actionResponse);
             assertEquals(200, actionResponse.getStatusCode());
-            assertEquals("OK", actionResponse.jsonPath().getString("result"));
+            assertEquals("OK", ResponseView.of(actionResponse).result());
+        });
+    }
+
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @Description("LOGIN и ACTION обращаются к /auth и /doAction ровно по одному разу.")
+    @Step("Вызовы внешнего сервиса при LOGIN и ACTION")
+    @DisplayName("LOGIN и ACTION должны вызвать /auth и /doAction по одному разу")
+    public void actionAfterLogin_shouldCallAuthAndDoActionOnce() {
+        String token = TestDataGenerator.generateToken();
+
+        // Заглушки токена с профилем по умолчанию: их вызовы считаются без журнала WireMock
+        StubMapping auth = stubs.stubAuth(token, DownstreamProfile.instant());
+        StubMapping doAction = stubs.stubDoAction(token, DownstreamProfile.instant());
+
+        ApiClient.sendPost(token, "LOGIN", Config.API_KEY);
+        lastUsedToken = token;
+        Response response = ApiClient.sendPost(token, "ACTION", Config.API_KEY);
+
+        Allure.step("Проверка вызовов /auth и /doAction", () -> {
+            Attachments.response("HTTP Response Body ACTION", response);
+            assertEquals(200, response.getStatusCode());
+            stubs.verifyCalled(auth, 1);
+            stubs.verifyCalled(doAction, 1);
         });
     }
 
@@ -103,10 +108,7 @@ public class ActionIntegrationTest extends BaseTest {
                 ApiClient.sendPost(token, "ACTION", Config.API_KEY);
 
         Allure.step("Проверка ошибки", () -> {
-            Allure.addAttachment(
-                    "HTTP Response Body",
-                    response.getBody().asString()
-            );
+            Attachments.response("HTTP Response Body", response);
             int status = response.getStatusCode();
             // Ожидается один из кодов 400, 401, 403 при ошибке авторизации
             boolean validStatus = status == 400 || status == 401 || status == 403;
@@ -130,10 +132,7 @@ public class ActionIntegrationTest extends BaseTest {
                 ApiClient.sendPost(token, "LOGOUT", Config.API_KEY);
 
         Allure.step("LOGOUT", () -> {
-            Allure.addAttachment(
-                    "HTTP Response Body LOGOUT",
-                    logoutResponse.getBody().asString()
-            );
+            Attachments.response("HTTP Response Body LOGOUT", logoutResponse);
             assertEquals(200, logoutResponse.getStatusCode());
         });
 
@@ -142,10 +141,7 @@ public class ActionIntegrationTest extends BaseTest {
                 ApiClient.sendPost(token, "ACTION", Config.API_KEY);
 
         Allure.step("ACTION после LOGOUT", () -> {
-            Allure.addAttachment(
-                    "HTTP Response Body ACTION",
-                    actionResponse.getBody().asString()
-            );
+            Attachments.response("HTTP Response Body ACTION", actionResponse);
             int status = actionResponse.getStatusCode();
             // Ожидается один из кодов 400, 401, 403 при ошибке авторизации после LOGOUT
             boolean validStatus = status == 400 || status == 401 || status == 403;
@@ -159,32 +155,8 @@ public class ActionIntegrationTest extends BaseTest {
     @Step("Повторный ACTION")
     @DisplayName("Повторный ACTION с тем же токеном должен вернуть 200 или тот же результат")
     public void repeatedActionWithSameToken_shouldReturnOkOrSameResult() {
-        String token = TestDataGenerator.generateToken();
-
-        // LOGIN
-        ApiClient.sendPost(token, "LOGIN", Config.API_KEY);
-        lastUsedToken = token;
-
-        // Первый ACTION
-        Response firstAction =
-                ApiClient.sendPost(token, "ACTION", Config.API_KEY);
-
-        // Второй ACTION
-        Response secondAction =
-                ApiClient.sendPost(token, "ACTION", Config.API_KEY);
-
-        Allure.step("Проверка повторного ACTION", () -> {
-            Allure.addAttachment(
-                    "HTTP Response Body First ACTION",
-                    firstAction.getBody().asString()
-            );
-            Allure.addAttachment(
-                    "HTTP Response Body Second ACTION",
-                    secondAction.getBody().asString()
-            );
-            assertEquals(200, firstAction.getStatusCode(), "Ожидается код ответа 200 при первом ACTION");
-            assertEquals(200, secondAction.getStatusCode(), "Ожидается код ответа 200 при повторном ACTION с тем же токеном");
-        });
+        // LOGIN → ACTION → ACTION; тот же сценарий используется в нагрузке (load.workload=REPEATED_ACTION)
+        ScenarioRunner.verify(Scenarios.REPEATED_ACTION, stubs);
     }
 
     @Severity(SeverityLevel.CRITICAL)
@@ -195,11 +167,8 @@ public class ActionIntegrationTest extends BaseTest {
     public void actionWhenAuthServiceUnavailable_shouldReturnServerError() {
         String token = TestDataGenerator.generateToken();
 
-        wireMockServer.stubFor(post("/auth")
-                .willReturn(aResponse()
-                        .withStatus(500)
-                        .withHeader("Content-Type", "application/json")
-                        .withBody("{\"result\":\"ERROR\"}")));
+        // Ошибка /auth только для токена этого теста
+        stubs.stubAuth(token, errorResponse(500));
 
         // /doAction остаётся доступным, ошибка эмулируется именно на этапе /auth
 
@@ -208,11 +177,8 @@ public class ActionIntegrationTest extends BaseTest {
 
         Allure.step("Проверка ошибки сервера", () -> {
             int status = response.getStatusCode();
-            Allure.addAttachment("HTTP Status Code", String.valueOf(status));
-            Allure.addAttachment(
-                    "HTTP Response Body",
-                    response.getBody().asString()
-            );
+            Attachments.text("HTTP Status Code", String.valueOf(status));
+            Attachments.response("HTTP Response Body", response);
             assertEquals(500, status, "Ожидается код ответа 500 при недоступности /auth");
         });
     }
@@ -229,23 +195,40 @@ public class ActionIntegrationTest extends BaseTest {
         ApiClient.sendPost(token, "LOGIN", Config.API_KEY);
         lastUsedToken = token;
 
-        // Эмулируем недоступность /doAction
-        wireMockServer.stubFor(post("/doAction")
-                .willReturn(aResponse()
-                        .withStatus(500)
-                        .withHeader("Content-Type", "application/json")
-                        .withBody("{\"result\":\"ERROR\"}")));
+        // Эмулируем недоступность /doAction для токена этого теста
+        stubs.stubDoAction(token, errorResponse(500));
 
         Response response = ApiClient.sendPost(token, "ACTION", Config.API_KEY);
 
         Allure.step("Проверка ошибки ACTION при недоступности /doAction", () -> {
             int status = response.getStatusCode();
-            Allure.addAttachment("HTTP Status Code", String.valueOf(status));
-            Allure.addAttachment(
-                    "HTTP Response Body",
-                    response.getBody().asString()
-            );
+            Attachments.text("HTTP Status Code", String.valueOf(status));
+            Attachments.response("HTTP Response Body", response);
             assertEquals(500, status, "Ожидается код ответа 500 при недоступности /doAction");
         });
     }
-}
\ No newline at end of file
+
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @Description("ACTION, когда /doAction отдаёт тело по частям в течение 500 мс. Ожидаем 200 OK")
+    @Step("ACTION при медленной выдаче ответа /doAction")
+    @DisplayName("ACTION при медленной выдаче ответа /doAction должен вернуть 200 OK")
+    public void actionWhenDoActionRespondsInChunks_shouldReturnOk() {
+        String token = TestDataGenerator.generateToken();
+
+        // LOGIN
+        ApiClient.sendPost(token, "LOGIN", Config.API_KEY);
+        lastUsedToken = token;
+
+        // Тело ответа /doAction приходит пятью частями
+        stubs.stubDoAction(token, DownstreamProfile.chunked(Duration.ofMillis(500), 5));
+
+        Response response = ApiClient.sendPost(token, "ACTION", Config.API_KEY);
+
+        Allure.step("Проверка успешного ACTION", () -> {
+            Attachments.response("HTTP Response Body", response);
+            assertEquals(200, response.getStatusCode());
+            assertEquals("OK", ResponseView.of(response).result());
+        });
+    }
+}
@@ -2,15 +2,20 @@ package com.autoqa.api.integration;
 
 import com.autoqa.base.BaseTest;
 import com.autoqa.base.Config;
+import com.autoqa.base.DownstreamProfile;
 import com.autoqa.utils.ApiClient;
+import com.autoqa.utils.ResponseView;
+import com.autoqa.utils.Attachments;
 import com.autoqa.utils.TestDataGenerator;
 import io.qameta.allure.*;
 import io.restassured.response.Response;
 import org.junit.jupiter.api.*;
 
-import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
-import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import java.time.Duration;
+
+import static com.autoqa.base.StubRegistry.errorResponse;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @Epic("API")
 @Feature("LOGIN")
@@ -20,16 +25,7 @@ public class LoginIntegrationTest extends BaseTest {
 
     private String lastUsedToken;
 
-    @BeforeEach
-    public void resetMocks() {
-        wireMockServer.resetAll();
-        // Заглушка для /auth — любые токены валидны по умолчанию
-        wireMockServer.stubFor(post("/auth")
-                .willReturn(aResponse()
-                        .withStatus(200)
-                        .withHeader("Content-Type", "application/json")
-                        .withBody("{\"result\":\"OK\"}")));
-    }
+    // Заглушка для /auth — любые токены валидны по умолчанию (см. StubRegistry.installDefaults)
 
     @AfterEach
     public void logoutAfterTest() {
@@ -37,8 +33,7 @@ public class LoginIntegrationTest extends BaseTest {
             Response logoutResponse = ApiClient.sendPost(lastUsedToken, "LOGOUT", Config.API_KEY);
             Allure.step("LOGOUT после теста", () -> {
                 int status = logoutResponse.getStatusCode();
-                String body = logoutResponse.getBody().asString();
-                Allure.addAttachment("HTTP Response Body LOGOUT", body);
+                Attachments.response("HTTP Response Body LOGOUT", logoutResponse);
             });
             lastUsedToken = null;
         }
@@ -57,10 +52,9 @@ public class LoginIntegrationTest extends BaseTest {
 
         Allure.step("Проверка HTTP-кода и тела ответа", () -> {
             int status = response.getStatusCode();
-            String body = response.getBody().asString();
-            Allure.addAttachment("HTTP Response Body LOGIN", body);
+            Attachments.response("HTTP Response Body LOGIN", response);
             assertEquals(200, status);
-            assertEquals("OK", response.jsonPath().getString("result"));
+            assertEquals("OK", ResponseView.of(response).result());
         });
     }
 
@@ -78,10 +72,9 @@ public class LoginIntegrationTest extends BaseTest {
 
         Allure.step("Первый LOGIN - проверка успешного ответа", () -> {
             int status = firstResponse.getStatusCode();
-            String body = firstResponse.getBody().asString();
-            Allure.addAttachment("HTTP Response Body First LOGIN", body);
+            Attachments.response("HTTP Response Body First LOGIN", firstResponse);
             assertEquals(200, status);
-            assertEquals("OK", firstResponse.jsonPath().getString("result"));
+            assertEquals("OK", ResponseView.of(firstResponse).result());
         });
 
         // Второй LOGIN
@@ -89,8 +82,7 @@ public class LoginIntegrationTest extends BaseTest {
 
         Allure.step("Второй LOGIN - проверка кода 409 или ERROR", () -> {
             int status = secondResponse.getStatusCode();
-            String body = secondResponse.getBody().asString();
-            Allure.addAttachment("HTTP Response Body Second LOGIN", body);
+            Attachments.response("HTTP Response Body Second LOGIN", secondResponse);
             assertEquals(409, status, "Ожидается 409 для повторного LOGIN или 400 с result=ERROR");
         });
     }
@@ -107,18 +99,16 @@ public class LoginIntegrationTest extends BaseTest {
         Response loginResponse = ApiClient.sendPost(token, "LOGIN", Config.API_KEY);
         Allure.step("Проверка успешного LOGIN", () -> {
             int status = loginResponse.getStatusCode();
-            String body = loginResponse.getBody().asString();
-            Allure.addAttachment("HTTP Response Body LOGIN", body);
+            Attachments.response("HTTP Response Body LOGIN", loginResponse);
             assertEquals(200, status);
-            assertEquals("OK", loginResponse.jsonPath().getString("result"));
+            assertEquals("OK", ResponseView.of(loginResponse).result());
         });
 
         // LOGOUT
         Response logoutResponse = ApiClient.sendPost(token, "LOGOUT", Config.API_KEY);
         Allure.step("Проверка успешного LOGOUT", () -> {
             int status = logoutResponse.getStatusCode();
-            String body = logoutResponse.getBody().asString();
-            Allure.addAttachment("HTTP Response Body LOGOUT", body);
+            Attachments.response("HTTP Response Body LOGOUT", logoutResponse);
             assertEquals(200, status);
         });
 
@@ -128,10 +118,9 @@ public class LoginIntegrationTest extends BaseTest {
 
         Allure.step("Проверка успешного LOGIN после LOGOUT", () -> {
             int status = secondLoginResponse.getStatusCode();
-            String body = secondLoginResponse.getBody().asString();
-            Allure.addAttachment("HTTP Response Body Second LOGIN", body);
+            Attachments.response("HTTP Response Body Second LOGIN", secondLoginResponse);
             assertEquals(200, status);
-            assertEquals("OK", secondLoginResponse.jsonPath().getString("result"));
+            assertEquals("OK", ResponseView.of(secondLoginResponse).result());
         });
     }
 
@@ -148,8 +137,7 @@ public class LoginIntegrationTest extends BaseTest {
 
         Allure.step("Проверка HTTP-кода и тела ответа", () -> {
             int status = response.getStatusCode();
-            String body = response.getBody().asString();
-            Allure.addAttachment("HTTP Response Body", body);
+            Attachments.response("HTTP Response Body", response);
             assertEquals(status == 401 || status == 403, true, "Ожидается 401 или 403 при неверном API-ключе");
         });
     }
@@ -166,8 +154,7 @@ public class LoginIntegrationTest extends BaseTest {
 
         Allure.step("Проверка HTTP-кода и тела ответа", () -> {
             int status = response.getStatusCode();
-            String body = response.getBody().asString();
-            Allure.addAttachment("HTTP Response Body", body);
+            Attachments.response("HTTP Response Body", response);
             assertEquals(status == 401 || status == 403, true, "Ожидается 401 или 403 при отсутствии API-ключа");
         });
     }
@@ -180,20 +167,57 @@ public class LoginIntegrationTest extends BaseTest {
     public void loginWhenAuthServiceUnavailable_shouldReturnServerError() {
         String token = TestDataGenerator.generateToken();
 
-        // Перекрываем stub /auth, чтобы возвращать 500
-        wireMockServer.stubFor(post("/auth")
-                .willReturn(aResponse()
-                        .withStatus(500)
-                        .withHeader("Content-Type", "application/json")
-                        .withBody("{\"result\":\"ERROR\"}")));
+        // Перекрываем stub /auth для токена этого теста, чтобы возвращать 500
+        stubs.stubAuth(token, errorResponse(500));
 
         Response response = ApiClient.sendPost(token, "LOGIN", Config.API_KEY);
 
         Allure.step("Проверка HTTP-кода и тела ответа", () -> {
             int status = response.getStatusCode();
-            String body = response.getBody().asString();
-            Allure.addAttachment("HTTP Response Body", body);
+            Attachments.response("HTTP Response Body", response);
             assertEquals(status == 500 || status == 504, true, "Ожидается 500 или 504 при недоступности /auth");
         });
     }
-}
\ No newline at end of file
+
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("LOGIN при медленном /auth должен быть успешным")
+    @Description("LOGIN, когда /auth отвечает с задержкой 300 мс (меньше таймаута приложения). Ожидаем 200 OK не быстрее задержки /auth")
+    @Step("LOGIN при медленном /auth")
+    public void loginWhenAuthServiceSlow_shouldReturnOk() {
+        String token = TestDataGenerator.generateToken();
+        Duration authDelay = Duration.ofMillis(300);
+
+        stubs.stubAuth(token, DownstreamProfile.fixed(authDelay));
+
+        Response response = ApiClient.sendPost(token, "LOGIN", Config.API_KEY);
+        lastUsedToken = token;
+
+        Allure.step("Проверка HTTP-кода и времени ответа", () -> {
+            Attachments.response("HTTP Response Body", response);
+            assertEquals(200, response.getStatusCode());
+            assertEquals("OK", ResponseView.of(response).result());
+            assertTrue(response.getTime() >= authDelay.toMillis(),
+                    "Время ответа " + response.getTime() + " мс меньше задержки /auth");
+        });
+    }
+
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("LOGIN при разрыве соединения с /auth должен вернуть 500 или 504")
+    @Description("LOGIN, когда /auth разрывает соединение без ответа. Ожидаем 500 или 504")
+    @Step("LOGIN при разрыве соединения с /auth")
+    public void loginWhenAuthConnectionReset_shouldReturnServerError() {
+        String token = TestDataGenerator.generateToken();
+
+        stubs.stubAuth(token, DownstreamProfile.connectionReset());
+
+        Response response = ApiClient.sendPost(token, "LOGIN", Config.API_KEY);
+
+        Allure.step("Проверка HTTP-кода", () -> {
+            int status = response.getStatusCode();
+            Attachments.response("HTTP Response Body", response);
+            assertEquals(status == 500 || status == 504, true, "Ожидается 500 или 504 при разрыве соединения с /auth");
+        });
+    }
+}
@@ -3,12 +3,14 @@ package com.autoqa.api.integration;
 import com.autoqa.base.BaseTest;
 import com.autoqa.base.Config;
 import com.autoqa.utils.ApiClient;
+import com.autoqa.utils.ResponseView;
+import com.autoqa.utils.Attachments;
 import com.autoqa.utils.TestDataGenerator;
 import io.qameta.allure.*;
 import io.restassured.response.Response;
 import org.junit.jupiter.api.*;
 
-import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @Epic("API")
@@ -19,17 +21,7 @@ public class LogoutIntegrationTest extends BaseTest {
 
     private String lastUsedToken;
 
-    @BeforeEach
-    public void resetMocks() {
-        wireMockServer.resetAll();
-
-        // По умолчанию внешний /auth доступен и отвечает OK
-        wireMockServer.stubFor(post("/auth")
-                .willReturn(aResponse()
-                        .withStatus(200)
-                        .withHeader("Content-Type", "application/json")
-                        .withBody("{\"result\":\"OK\"}")));
-    }
+    // По умолчанию внешний /auth доступен и отвечает OK (см. StubRegistry.installDefaults)
 
     @AfterEach
     public void cleanupAfterTest() {
@@ -52,7 +44,7 @@ public class LogoutIntegrationTest extends BaseTest {
         lastUsedToken = token;
 
         Allure.step("Проверка успешного LOGIN", () -> {
-            Allure.addAttachment("LOGIN response", loginResponse.getBody().asString());
+            Attachments.response("LOGIN response", loginResponse);
             assertEquals(200, loginResponse.getStatusCode(), "Ожидается код 200 для успешного LOGIN перед LOGOUT");
         });
 
@@ -60,7 +52,7 @@ public class LogoutIntegrationTest extends BaseTest {
         Response logoutResponse = ApiClient.sendPost(token, "LOGOUT", Config.API_KEY);
 
         Allure.step("Проверка успешного LOGOUT", () -> {
-            Allure.addAttachment("LOGOUT response", logoutResponse.getBody().asString());
+            Attachments.response("LOGOUT response", logoutResponse);
             assertEquals(200, logoutResponse.getStatusCode(), "Ожидается код 200 для успешного LOGOUT");
         });
     }
@@ -75,12 +67,12 @@ public class LogoutIntegrationTest extends BaseTest {
 
         // LOGIN
         Response firstLogin = ApiClient.sendPost(token, "LOGIN", Config.API_KEY);
-        Allure.addAttachment("First LOGIN", firstLogin.getBody().asString());
+        Attachments.response("First LOGIN", firstLogin);
         assertEquals(200, firstLogin.getStatusCode(), "Ожидается код 200 для первого LOGIN");
 
         // LOGOUT
         Response logout = ApiClient.sendPost(token, "LOGOUT", Config.API_KEY);
-        Allure.addAttachment("LOGOUT", logout.getBody().asString());
+        Attachments.response("LOGOUT", logout);
         assertEquals(200, logout.getStatusCode(), "Ожидается код 200 для LOGOUT");
 
         // Повторный LOGIN
@@ -88,9 +80,9 @@ public class LogoutIntegrationTest extends BaseTest {
         lastUsedToken = token;
 
         Allure.step("Проверка повторного LOGIN после LOGOUT", () -> {
-            Allure.addAttachment("Second LOGIN", secondLogin.getBody().asString());
+            Attachments.response("Second LOGIN", secondLogin);
             assertEquals(200, secondLogin.getStatusCode(), "Ожидается код 200 для повторного LOGIN после LOGOUT");
-            assertEquals("OK", secondLogin.jsonPath().getString("result"));
+            assertEquals("OK", ResponseView.of(secondLogin).result());
         });
     }
 
@@ -105,7 +97,7 @@ public class LogoutIntegrationTest extends BaseTest {
         Response response = ApiClient.sendPost(token, "LOGOUT", Config.API_KEY);
 
         Allure.step("Проверка ответа LOGOUT без LOGIN", () -> {
-            Allure.addAttachment("LOGOUT response", response.getBody().asString());
+            Attachments.response("LOGOUT response", response);
             assertEquals(200, response.getStatusCode(), "Ожидается код 200 при LOGOUT без предварительного LOGIN");
         });
     }
@@ -124,12 +116,12 @@ public class LogoutIntegrationTest extends BaseTest {
 
         // Первый LOGOUT
         Response firstLogout = ApiClient.sendPost(token, "LOGOUT", Config.API_KEY);
-        Allure.addAttachment("First LOGOUT", firstLogout.getBody().asString());
+        Attachments.response("First LOGOUT", firstLogout);
         assertEquals(200, firstLogout.getStatusCode(), "Ожидается код 200 для первого LOGOUT");
 
         // Повторный LOGOUT
         Response secondLogout = ApiClient.sendPost(token, "LOGOUT", Config.API_KEY);
-        Allure.addAttachment("Second LOGOUT", secondLogout.getBody().asString());
+        Attachments.response("Second LOGOUT", secondLogout);
         assertEquals(200, secondLogout.getStatusCode(), "Ожидается код 200 для повторного LOGOUT");
     }
 
@@ -141,15 +133,15 @@ public class LogoutIntegrationTest extends BaseTest {
     public void logoutWhenAuthServiceUnavailable_shouldReturnServerError() {
         String token = TestDataGenerator.generateToken();
 
-        wireMockServer.stubFor(post("/auth")
-                .willReturn(aResponse()
-                        .withStatus(500)
-                        .withBody("{\"result\":\"ERROR\"}")));
+        // Ошибка /auth только для токена этого теста
+        stubs.stubAuth(token, aResponse()
+                .withStatus(500)
+                .withBody("{\"result\":\"ERROR\"}"));
 
         Response response = ApiClient.sendPost(token, "LOGOUT", Config.API_KEY);
 
         Allure.step("Проверка серверной ошибки", () -> {
-            Allure.addAttachment("LOGOUT response", response.getBody().asString());
+            Attachments.response("LOGOUT response", response);
             assertEquals(500, response.getStatusCode(), "Ожидается код 500 при недоступности внешнего /auth сервиса");
         });
     }
@@ -0,0 +1,109 @@
+package com.autoqa.api.performance;
+
+import com.autoqa.base.BaseTest;
+import com.autoqa.base.Config;
+import com.autoqa.load.ActionStats;
+import com.autoqa.load.LoadReport;
+import com.autoqa.load.SessionLoadEngine;
+import com.autoqa.metrics.PerfBaseline;
+import com.autoqa.metrics.RegressionCheck;
+import com.autoqa.utils.Attachments;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.parallel.Isolated;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@Epic("API")
+@Feature("Производительность")
+@Story("Регрессия задержек и пропускной способности")
+@DisplayName("Проверка производительности относительно базы")
+// Выполняется последним и без параллельных классов, чтобы чужие запросы не искажали замер
+@Isolated
+@Order(Integer.MAX_VALUE)
+public class PerformanceRegressionTest extends BaseTest {
+
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("Задержки и пропускная способность LOGIN/ACTION/LOGOUT не хуже базы")
+    @Description("Короткий нагрузочный прогон LOGIN → ACTION → LOGOUT сравнивается с базой "
+            + "(-Dperf.baseline.file), записанной на той же машине; включается -Dperf.gate=true. Рост p50/p99 проверяется биномиальным критерием, падение "
+            + "пропускной способности — по допуску. С -Dperf.baseline.update=true результаты записываются как новая база")
+    public void latencyAndThroughput_shouldNotRegress() throws Exception {
+        assumeTrue(Config.PERF_GATE || Config.PERF_BASELINE_UPDATE,
+                "Проверка производительности включается -Dperf.gate=true");
+        Path baselineFile = Path.of(Config.PERF_BASELINE_FILE);
+        // Включённая проверка без базы не пропускается, иначе регрессия никогда не уронила бы сборку
+        assertTrue(Config.PERF_BASELINE_UPDATE || Files.exists(baselineFile),
+                "Нет базы производительности " + baselineFile + ": создайте её на этой машине прогоном "
+                        + "с -Dperf.baseline.update=true");
+
+        LoadReport report = Allure.step("Нагрузочный прогон", this::measure);
+        assertEquals(0, report.errors(), "Замер производительности должен пройти без ошибок:\n" + report.format());
+
+        double seconds = report.elapsed().toNanos() / 1e9;
+        List<PerfBaseline.Entry> current = new ArrayList<>();
+        for (ActionStats stats : report.actions()) {
+            if (stats.count() > 0) {
+                current.add(new PerfBaseline.Entry(stats.action(), stats.count(),
+                        stats.latency().percentileMillis(50), stats.latency().percentileMillis(99),
+                        stats.count() / seconds));
+            }
+        }
+
+        if (Config.PERF_BASELINE_UPDATE) {
+            PerfBaseline.of(current).store(baselineFile, "База производительности от " + LocalDateTime.now()
+                    + ", " + report.users() + " пользователей, " + report.sessions() + " сессий");
+            Attachments.text("Новая база производительности", Files.readString(baselineFile));
+            return;
+        }
+
+        PerfBaseline baseline = PerfBaseline.load(baselineFile);
+        RegressionCheck.Tolerances tolerances = new RegressionCheck.Tolerances(Config.PERF_TOLERANCE_P50,
+                Config.PERF_TOLERANCE_P99, Config.PERF_TOLERANCE_THROUGHPUT, Config.PERF_CONFIDENCE);
+        Map<String, ActionStats> byAction = new HashMap<>();
+        for (ActionStats stats : report.actions()) {
+            byAction.put(stats.action(), stats);
+        }
+        List<RegressionCheck.Row> rows = new ArrayList<>();
+        for (PerfBaseline.Entry base : baseline.entries()) {
+            ActionStats stats = byAction.get(base.action());
+            // Действие из базы, которого в прогоне нет или по которому нет запросов, — тоже регрессия
+            if (stats == null || stats.count() == 0) {
+                rows.add(RegressionCheck.missing(base));
+            } else {
+                rows.addAll(RegressionCheck.compare(base, stats.latency(), stats.count() / seconds, tolerances));
+            }
+        }
+        String table = RegressionCheck.format(rows);
+        Attachments.text("Сравнение с базой производительности", table);
+        System.out.println(table);
+
+        assertFalse(RegressionCheck.hasRegression(rows), "Производительность хуже базы:\n" + table);
+    }
+
+    private LoadReport measure() throws InterruptedException {
+        // Прогрев JIT и пула соединений, результаты не учитываются
+        new SessionLoadEngine()
+                .users(Config.PERF_USERS)
+                .iterations(Math.max(1, Config.PERF_ITERATIONS / 5))
+                .run();
+        LoadReport report = new SessionLoadEngine()
+                .users(Config.PERF_USERS)
+                .iterations(Config.PERF_ITERATIONS)
+                .run();
+        Attachments.text("Отчёт нагрузочного прогона", report::format);
+        return report;
+    }
+}
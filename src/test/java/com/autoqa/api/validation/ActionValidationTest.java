@@ -2,14 +2,17 @@ package com.autoqa.api.validation;
 
 import com.autoqa.base.BaseTest;
 import com.autoqa.base.Config;
+import com.autoqa.scenario.ScenarioRunner;
+import com.autoqa.scenario.Scenarios;
 import com.autoqa.utils.ApiClient;
+import com.autoqa.utils.ResponseView;
+import com.autoqa.utils.Attachments;
 import com.autoqa.utils.TestDataGenerator;
 import io.qameta.allure.*;
 import io.restassured.response.Response;
 import org.junit.jupiter.api.*;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static com.github.tomakehurst.wiremock.client.WireMock.*;
 
 @Epic("API")
 @Feature("ACTION")
@@ -19,17 +22,7 @@ public class ActionValidationTest extends BaseTest {
 
     private String lastUsedToken;
 
-    @BeforeEach
-    public void resetMocks() {
-        wireMockServer.resetAll();
-
-        // Внешний auth по умолчанию доступен
-        wireMockServer.stubFor(post(urlEqualTo("/auth"))
-                .willReturn(aResponse()
-                        .withStatus(200)
-                        .withHeader("Content-Type", "application/json")
-                        .withBody("{\"result\":\"OK\"}")));
-    }
+    // Внешний auth по умолчанию доступен (см. StubRegistry.installDefaults)
 
     @AfterEach
     public void logoutAfterTest() {
@@ -55,11 +48,10 @@ public class ActionValidationTest extends BaseTest {
 
         Allure.step("Проверка ответа ACTION без LOGIN", () -> {
             int status = response.getStatusCode();
-            String body = response.getBody().asString();
-            Allure.addAttachment("HTTP Response Body", body);
+            Attachments.response("HTTP Response Body", response);
 
             assertEquals(400, status, "Ожидается код 400 при попытке ACTION без LOGIN");
-            assertEquals("ERROR", response.jsonPath().getString("result"));
+            assertEquals("ERROR", ResponseView.of(response).result());
         });
     }
 
@@ -72,28 +64,8 @@ public class ActionValidationTest extends BaseTest {
         """)
     @Step("ACTION после LOGOUT")
     public void actionAfterLogout_shouldReturnError() {
-        String token = TestDataGenerator.generateToken();
-
-        // LOGIN
-        Response loginResponse = ApiClient.sendPost(token, "LOGIN", Config.API_KEY);
-        assertEquals(200, loginResponse.getStatusCode());
-        lastUsedToken = token;
-
-        // LOGOUT
-        Response logoutResponse = ApiClient.sendPost(token, "LOGOUT", Config.API_KEY);
-        assertEquals(200, logoutResponse.getStatusCode());
-
-        // ACTION
-        Response actionResponse = ApiClient.sendPost(token, "ACTION", Config.API_KEY);
-
-        Allure.step("Проверка ACTION после LOGOUT", () -> {
-            int status = actionResponse.getStatusCode();
-            String body = actionResponse.getBody().asString();
-            Allure.addAttachment("HTTP Response Body", body);
-
-            assertEquals(400, status, "Ожидается код 400 при ACTION после LOGOUT");
-            assertEquals("ERROR", actionResponse.jsonPath().getString("result"));
-        });
+        // LOGIN → LOGOUT → ACTION (400, result=ERROR); сценарий общий с нагрузкой (ACTION_AFTER_LOGOUT)
+        ScenarioRunner.verify(Scenarios.ACTION_AFTER_LOGOUT, stubs);
     }
 
     @Severity(SeverityLevel.NORMAL)
@@ -112,14 +84,13 @@ public class ActionValidationTest extends BaseTest {
 
         Allure.step("Проверка ошибки валидации токена", () -> {
             int status = response.getStatusCode();
-            String body = response.getBody().asString();
 
             if (status != 400) {
-                Allure.addAttachment("HTTP Response Body", body);
+                Attachments.response("HTTP Response Body", response);
             }
 
             assertEquals(400, status, "Ожидается код 400 при ACTION с невалидным токеном");
-            assertEquals("ERROR", response.jsonPath().getString("result"));
+            assertEquals("ERROR", ResponseView.of(response).result());
         });
     }
 
@@ -136,14 +107,13 @@ public class ActionValidationTest extends BaseTest {
 
         Allure.step("Проверка ACTION без token", () -> {
             int status = response.getStatusCode();
-            String body = response.getBody().asString();
 
             if (status != 400) {
-                Allure.addAttachment("HTTP Response Body", body);
+                Attachments.response("HTTP Response Body", response);
             }
 
             assertEquals(400, status, "Ожидается код 400 при ACTION без токена");
-            assertEquals("ERROR", response.jsonPath().getString("result"));
+            assertEquals("ERROR", ResponseView.of(response).result());
         });
     }
 }
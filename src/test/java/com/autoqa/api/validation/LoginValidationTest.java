@@ -3,17 +3,21 @@ package com.autoqa.api.validation;
 import com.autoqa.base.BaseTest;
 import com.autoqa.base.Config;
 import com.autoqa.utils.ApiClient;
+import com.autoqa.utils.Attachments;
+import com.autoqa.utils.CleanupReport;
+import com.autoqa.utils.ResponseView;
+import com.autoqa.utils.SessionCleanupService;
 import com.autoqa.utils.TestDataGenerator;
 import io.qameta.allure.*;
 import io.restassured.response.Response;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static com.github.tomakehurst.wiremock.client.WireMock.*;
 
 @Epic("API")
 @Feature("LOGIN")
@@ -36,26 +40,12 @@ public class LoginValidationTest extends BaseTest {
             "12345678901234567890123456789012"
         };
 
-        for (String token : testTokens) {
-            try {
-                Response response = ApiClient.sendPost(token, "LOGOUT", Config.API_KEY);
-                System.out.println("LOGOUT token=" + token + " -> " + response.getStatusCode());
-            } catch (Exception e) {
-                System.out.println("Ошибка при LOGOUT token=" + token + ": " + e.getMessage());
-            }
-        }
+        // LOGOUT выполняется параллельно; невалидные токены ожидаемо попадают в ошибки (400)
+        CleanupReport report = SessionCleanupService.withDefaults().logoutAll(List.of(testTokens));
+        System.out.println(report);
     }
 
-    @BeforeEach
-    public void resetMocks() {
-        wireMockServer.resetAll();  // сброс всех stub’ов и записей
-        // Создаём stub для /auth, чтобы позитивные токены всегда принимались
-        wireMockServer.stubFor(post(urlEqualTo("/auth"))
-                .willReturn(aResponse()
-                        .withStatus(200)
-                        .withHeader("Content-Type", "application/json")
-                        .withBody("{\"result\":\"OK\"}")));
-    }
+    // Stub для /auth, чтобы позитивные токены всегда принимались (см. StubRegistry.installDefaults)
 
     @AfterEach
     public void logoutAfterTest() {
@@ -64,8 +54,7 @@ public class LoginValidationTest extends BaseTest {
 
             Allure.step("LOGOUT после теста", () -> {
                 int status = logoutResponse.getStatusCode();
-                String body = logoutResponse.getBody().asString();
-                Allure.addAttachment("HTTP Response Body LOGOUT", body);
+                Attachments.response("HTTP Response Body LOGOUT", logoutResponse);
             });
 
             lastUsedToken = null; // очищаем токен
@@ -90,10 +79,9 @@ public class LoginValidationTest extends BaseTest {
 
         Allure.step("Проверка HTTP-кода и тела ответа", () -> {
             int status = response.getStatusCode();
-            String body = response.getBody().asString();
-            Allure.addAttachment("HTTP Response Body", body);
+            Attachments.response("HTTP Response Body", response);
             assertEquals(200, status, "Ожидается код 200 для успешного LOGIN с валидным токеном");
-            assertEquals("OK", response.jsonPath().getString("result"));
+            assertEquals("OK", ResponseView.of(response).result());
         });
     }
 
@@ -115,12 +103,11 @@ public class LoginValidationTest extends BaseTest {
 
         Allure.step("Проверка HTTP-кода и тела ответа", () -> {
             int status = response.getStatusCode();
-            String body = response.getBody().asString();
             if (status != 400) {
-                Allure.addAttachment("HTTP Response Body", body);
+                Attachments.response("HTTP Response Body", response);
             }
             assertEquals(400, status, "Ожидается код 400 при ошибке валидации токена");
-            assertEquals("ERROR", response.jsonPath().getString("result"));
+            assertEquals("ERROR", ResponseView.of(response).result());
         });
     }
 
@@ -142,12 +129,11 @@ public class LoginValidationTest extends BaseTest {
 
         Allure.step("Проверка HTTP-кода и тела ответа", () -> {
             int status = response.getStatusCode();
-            String body = response.getBody().asString();
             if (status != 400) {
-                Allure.addAttachment("HTTP Response Body", body);
+                Attachments.response("HTTP Response Body", response);
             }
             assertEquals(400, status, "Ожидается код 400 при ошибке валидации токена");
-            assertEquals("ERROR", response.jsonPath().getString("result"));
+            assertEquals("ERROR", ResponseView.of(response).result());
         });
     }
 
@@ -169,12 +155,11 @@ public class LoginValidationTest extends BaseTest {
 
         Allure.step("Проверка HTTP-кода и тела ответа", () -> {
             int status = response.getStatusCode();
-            String body = response.getBody().asString();
             if (status != 400) {
-                Allure.addAttachment("HTTP Response Body", body);
+                Attachments.response("HTTP Response Body", response);
             }
             assertEquals(400, status, "Ожидается код 400 при ошибке валидации токена");
-            assertEquals("ERROR", response.jsonPath().getString("result"));
+            assertEquals("ERROR", ResponseView.of(response).result());
         });
     }
 
@@ -194,10 +179,9 @@ public class LoginValidationTest extends BaseTest {
 
         Allure.step("Проверка HTTP-кода и тела ответа", () -> {
             int status = response.getStatusCode();
-            String body = response.getBody().asString();
-            Allure.addAttachment("HTTP Response Body", body);
+            Attachments.response("HTTP Response Body", response);
             assertEquals(200, status, "Ожидается код 200 для успешного LOGIN с токеном корректной структуры");
-            assertEquals("OK", response.jsonPath().getString("result"));
+            assertEquals("OK", ResponseView.of(response).result());
         });
     }
 
@@ -217,10 +201,9 @@ public class LoginValidationTest extends BaseTest {
 
         Allure.step("Проверка HTTP-кода и тела ответа", () -> {
             int status = response.getStatusCode();
-            String body = response.getBody().asString();
-            Allure.addAttachment("HTTP Response Body", body);
+            Attachments.response("HTTP Response Body", response);
             assertEquals(200, status, "Ожидается код 200 для успешного LOGIN с токеном корректной структуры");
-            assertEquals("OK", response.jsonPath().getString("result"));
+            assertEquals("OK", ResponseView.of(response).result());
         });
     }
 
@@ -241,10 +224,9 @@ public class LoginValidationTest extends BaseTest {
 
         Allure.step("Проверка HTTP-кода и тела ответа", () -> {
             int status = response.getStatusCode();
-            String body = response.getBody().asString();
-            Allure.addAttachment("HTTP Response Body", body);
+            Attachments.response("HTTP Response Body", response);
             assertEquals(200, status, "Ожидается код 200 для успешного LOGIN с токеном корректной структуры");
-            assertEquals("OK", response.jsonPath().getString("result"));
+            assertEquals("OK", ResponseView.of(response).result());
         });
     }
 
@@ -267,10 +249,9 @@ public class LoginValidationTest extends BaseTest {
 
         Allure.step("Проверка HTTP-кода и тела ответа", () -> {
             int status = response.getStatusCode();
-            String body = response.getBody().asString();
-            Allure.addAttachment("HTTP Response Body", body);
+            Attachments.response("HTTP Response Body", response);
             assertEquals(200, status, "Ожидается код 200 для успешного LOGIN с токеном корректной структуры");
-            assertEquals("OK", response.jsonPath().getString("result"));
+            assertEquals("OK", ResponseView.of(response).result());
         });
     }
 }
\ No newline at end of file
@@ -3,15 +3,15 @@ package com.autoqa.api.validation;
 import com.autoqa.base.BaseTest;
 import com.autoqa.base.Config;
 import com.autoqa.utils.ApiClient;
+import com.autoqa.utils.ResponseView;
+import com.autoqa.utils.Attachments;
 import com.autoqa.utils.TestDataGenerator;
 import io.qameta.allure.*;
 import io.restassured.response.Response;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static com.github.tomakehurst.wiremock.client.WireMock.*;
 
 @Epic("API")
 @Feature("LOGOUT")
@@ -19,16 +19,7 @@ import static com.github.tomakehurst.wiremock.client.WireMock.*;
 @DisplayName("Валидация выхода из системы (LOGOUT)")
 public class LogoutValidationTest extends BaseTest {
 
-    @BeforeEach
-    public void resetMocks() {
-        wireMockServer.resetAll();
-        // Заглушка для /auth — любые токены валидны для позитивных LOGOUT
-        wireMockServer.stubFor(post(urlEqualTo("/auth"))
-                .willReturn(aResponse()
-                        .withStatus(200)
-                        .withHeader("Content-Type", "application/json")
-                        .withBody("{\"result\":\"OK\"}")));
-    }
+    // Заглушка для /auth — любые токены валидны для позитивных LOGOUT (см. StubRegistry.installDefaults)
 
     @Severity(SeverityLevel.NORMAL)
     @Test
@@ -42,8 +33,7 @@ public class LogoutValidationTest extends BaseTest {
 
         Allure.step("Проверка HTTP-кода и тела ответа", () -> {
             int status = response.getStatusCode();
-            String body = response.getBody().asString();
-            Allure.addAttachment("HTTP Response Body LOGOUT without LOGIN", body);
+            Attachments.response("HTTP Response Body LOGOUT without LOGIN", response);
             assertEquals(200, status, "Ожидается код 200 при LOGOUT без предварительного LOGIN");
         });
     }
@@ -60,10 +50,9 @@ public class LogoutValidationTest extends BaseTest {
 
         Allure.step("Проверка HTTP-кода и тела ответа", () -> {
             int status = response.getStatusCode();
-            String body = response.getBody().asString();
-            Allure.addAttachment("HTTP Response Body LOGOUT with invalid token", body);
+            Attachments.response("HTTP Response Body LOGOUT with invalid token", response);
             assertEquals(400, status, "Ожидается код 400 при LOGOUT с недопустимым токеном");
-            assertEquals("ERROR", response.jsonPath().getString("result"));
+            assertEquals("ERROR", ResponseView.of(response).result());
         });
     }
 
@@ -77,10 +66,9 @@ public class LogoutValidationTest extends BaseTest {
 
         Allure.step("Проверка HTTP-кода и тела ответа", () -> {
             int status = response.getStatusCode();
-            String body = response.getBody().asString();
-            Allure.addAttachment("HTTP Response Body LOGOUT with missing token", body);
+            Attachments.response("HTTP Response Body LOGOUT with missing token", response);
             assertEquals(400, status, "Ожидается код 400 при LOGOUT без токена");
-            assertEquals("ERROR", response.jsonPath().getString("result"));
+            assertEquals("ERROR", ResponseView.of(response).result());
         });
     }
 
@@ -97,14 +85,14 @@ public class LogoutValidationTest extends BaseTest {
         int firstStatus = firstResponse.getStatusCode();
         String firstBody = firstResponse.getBody().asString();
 
-        Allure.addAttachment("HTTP Response Body First LOGOUT", firstBody);
+        Attachments.response("HTTP Response Body First LOGOUT", firstResponse);
 
         // Второй LOGOUT
         Response secondResponse = ApiClient.sendPost(token, "LOGOUT", Config.API_KEY);
         int secondStatus = secondResponse.getStatusCode();
         String secondBody = secondResponse.getBody().asString();
 
-        Allure.addAttachment("HTTP Response Body Second LOGOUT", secondBody);
+        Attachments.response("HTTP Response Body Second LOGOUT", secondResponse);
 
         Allure.step("Проверка, что повторный LOGOUT возвращает тот же результат", () -> {
             assertEquals(firstStatus, secondStatus, "Ожидается, что повторный LOGOUT возвращает тот же код HTTP");
@@ -0,0 +1,23 @@
+package com.autoqa.base;
+
+import com.autoqa.utils.Attachments;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * Границы теста для Attachments: отложенные вложения (режимы on-failure и sampled)
+ * сохраняются после @AfterEach, если упал сам тест или его @AfterEach.
+ */
+public class AttachmentPolicyExtension implements BeforeEachCallback, AfterEachCallback {
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        Attachments.beginTest();
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        Attachments.endTest(context.getExecutionException().isPresent());
+    }
+}
@@ -1,31 +1,73 @@
 package com.autoqa.base;
 
+import com.autoqa.metrics.LatencyRecorder;
+import com.autoqa.metrics.LatencySnapshot;
+import com.autoqa.utils.Attachments;
 import com.github.tomakehurst.wiremock.WireMockServer;
 import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.extension.ExtendWith;
 
-import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
-
+// WireMock один на всю JVM: запускается расширением и останавливается в конце прогона;
+// политика вложений Allure применяется к каждому тесту, незакрытые сессии освобождаются в конце прогона
+@ExtendWith({SharedWireMockExtension.class, AttachmentPolicyExtension.class, SessionLeaseExtension.class})
 public class BaseTest {
 
     protected static WireMockServer wireMockServer;
 
+    // Сервер внешнего сервиса: WireMock или LightMockServer (-Dmock.server); при light wireMockServer == null
+    protected static MockBackend mockBackend;
+
+    // Заглушки текущего теста, привязанные к его токенам
+    protected StubRegistry stubs;
+
     @BeforeAll
     public static void setupWireMock() {
-        wireMockServer = new WireMockServer(options().port(8888));
-        wireMockServer.start();
-        // Проверка, что сервер запущен
-        if (!wireMockServer.isRunning()) {
-            throw new IllegalStateException("WireMock не запустился на 8888!");
-        }
-        System.out.println("WireMock успешно запущен на порту 8888");
+        mockBackend = SharedWireMockExtension.backend();
+        wireMockServer = mockBackend instanceof WireMockBackend ? ((WireMockBackend) mockBackend).server() : null;
+    }
+
+    // Задержки класса пишутся в его собственную область LatencyRecorder, поэтому при параллельном
+    // запуске (-Djunit.parallel=true) в таблицу класса не попадают запросы других классов
+    @BeforeAll
+    public static void openLatencyScope(TestInfo testInfo) {
+        testInfo.getTestClass().ifPresent(testClass -> LatencyRecorder.openScope(testClass.getName()));
+    }
+
+    @BeforeEach
+    public void enterLatencyScope(TestInfo testInfo) {
+        testInfo.getTestClass().ifPresent(testClass -> LatencyRecorder.enterScope(testClass.getName()));
+    }
+
+    @BeforeEach
+    public void createStubRegistry() {
+        stubs = new StubRegistry(mockBackend);
+    }
+
+    @AfterEach
+    public void clearTokenStubs() {
+        stubs.clear();
+    }
+
+    @AfterEach
+    public void exitLatencyScope() {
+        LatencyRecorder.exitScope();
     }
 
+    /**
+     * Таблица перцентилей задержек по запросам, отправленным из тестов класса
+     * (включая их @BeforeEach/@AfterEach и асинхронные запросы)
+     */
     @AfterAll
-    public static void stopWireMock() {
-        if (wireMockServer != null) {
-            wireMockServer.stop();
-            System.out.println("WireMock остановлен");
-        }
+    public static void publishLatencyTable(TestInfo testInfo) {
+        testInfo.getTestClass().ifPresent(testClass -> {
+            LatencySnapshot window = LatencyRecorder.closeScope(testClass.getName());
+            if (window.count() > 0) {
+                Attachments.text("Задержки запросов: " + testClass.getSimpleName(), window::format);
+            }
+        });
     }
 }
@@ -1,8 +1,14 @@
 package com.autoqa.base;
 
 public class Config {
-    // URL тестируемого приложения
-    public static final String BASE_URL = "http://localhost:8080/endpoint";
+    // URL тестируемого приложения (можно переопределить через -Dbase.url)
+    public static final String BASE_URL = System.getProperty("base.url", "http://localhost:8080/endpoint");
+
+    // Экземпляры приложения через запятую (по умолчанию один BASE_URL) и способ распределения запросов между ними:
+    // token-hash (все запросы токена на один экземпляр), round-robin, least-outstanding
+    public static final String BASE_URLS = System.getProperty("base.urls", BASE_URL);
+
+    public static final String TARGET_ROUTING = System.getProperty("target.routing", "token-hash");
 
     // Статический API-ключ
     public static final String API_KEY = "qazWSXedc";
@@ -15,4 +21,80 @@ public class Config {
 
     //Конкретный токен
     public static final String Token1 = "A823456789012345678901234567890B";
+
+    // Режим HTTP-клиента: pooled (общий пул keep-alive соединений) или legacy (новый запрос на каждый вызов)
+    public static final String CLIENT_MODE = System.getProperty("api.client.mode", "pooled");
+
+    // Максимальное число постоянных соединений в пуле ApiClient
+    public static final int POOL_MAX_CONNECTIONS = Integer.getInteger("api.client.pool.size", 64);
+
+    // Лимит одновременных запросов асинхронного клиента (ApiClient.sendPostAsync)
+    public static final int ASYNC_MAX_IN_FLIGHT = Integer.getInteger("api.client.async.max.in.flight", 256);
+
+    // Файл, в который ApiClient и AsyncApiClient записывают трафик для TrafficReplayer; без свойства запись выключена
+    public static final String TRAFFIC_RECORD = System.getProperty("traffic.record");
+
+    // Предельный размер файла записи трафика в МБ; запросы сверх него не записываются
+    public static final int TRAFFIC_RECORD_MAX_MB = Integer.getInteger("traffic.record.max.mb", 256);
+
+    // Политика вложений Allure: always, on-failure (только для упавших тестов), sampled (доля успешных + упавшие), off
+    public static final String ATTACH_MODE = System.getProperty("allure.attach.mode", "always");
+
+    // Доля успешных тестов, вложения которых сохраняются в режиме sampled
+    public static final double ATTACH_SAMPLE_RATE = Double.parseDouble(System.getProperty("allure.attach.sample.rate", "0.1"));
+
+    // Максимальный размер одного вложения в байтах, остаток обрезается
+    public static final int ATTACH_MAX_BYTES = Integer.getInteger("allure.attach.max.bytes", 64 * 1024);
+
+    // Запись файлов вложений в фоновом потоке, а не в потоке теста
+    public static final boolean ATTACH_ASYNC = Boolean.parseBoolean(System.getProperty("allure.attach.async", "true"));
+
+    // Сколько LOGOUT одновременно выполняет SessionCleanupService
+    public static final int CLEANUP_PARALLELISM = Integer.getInteger("cleanup.parallelism", 64);
+
+    // Число попыток LOGOUT на токен при ответах 5xx и ошибках соединения
+    public static final int CLEANUP_MAX_ATTEMPTS = Integer.getInteger("cleanup.max.attempts", 3);
+
+    // Профили задержек и отказов заглушек по умолчанию для /auth и /doAction (см. DownstreamProfile)
+    public static final String MOCK_PROFILE_AUTH = System.getProperty("mock.profile.auth", "instant");
+
+    public static final String MOCK_PROFILE_DO_ACTION = System.getProperty("mock.profile.doAction", "instant");
+
+    // Сервер внешнего сервиса на порту 8888: wiremock или light (LightMockServer на JDK HttpServer)
+    public static final String MOCK_SERVER = System.getProperty("mock.server", "wiremock");
+
+    // Режим WireMock: default или load (без журнала запросов, асинхронные ответы, больше потоков, без логов)
+    public static final String MOCK_MODE = System.getProperty("mock.mode", "default");
+
+    // Журнал запросов в режиме load: 0 — выключен, иначе хранятся последние N запросов
+    public static final int MOCK_JOURNAL_MAX_ENTRIES = Integer.getInteger("mock.journal.max.entries", 0);
+
+    // Потоки Jetty и потоки отложенных ответов WireMock в режиме load
+    public static final int MOCK_CONTAINER_THREADS = Integer.getInteger("mock.container.threads", 200);
+
+    public static final int MOCK_ASYNC_THREADS = Integer.getInteger("mock.async.threads", 16);
+
+    // Включить PerformanceRegressionTest; без флага обычный прогон не тратит время на замер
+    public static final boolean PERF_GATE = Boolean.getBoolean("perf.gate");
+
+    // База производительности для PerformanceRegressionTest, записанная на этой же машине
+    public static final String PERF_BASELINE_FILE = System.getProperty("perf.baseline.file", "target/perf-baseline.properties");
+
+    // Записать результаты прогона как новую базу вместо сравнения
+    public static final boolean PERF_BASELINE_UPDATE = Boolean.getBoolean("perf.baseline.update");
+
+    // Нагрузка замера производительности: пользователи и сессии на пользователя
+    public static final int PERF_USERS = Integer.getInteger("perf.users", 4);
+
+    public static final int PERF_ITERATIONS = Integer.getInteger("perf.iterations", 200);
+
+    // Допустимый рост p50 и p99 и падение пропускной способности относительно базы (доли)
+    public static final double PERF_TOLERANCE_P50 = Double.parseDouble(System.getProperty("perf.tolerance.p50", "0.25"));
+
+    public static final double PERF_TOLERANCE_P99 = Double.parseDouble(System.getProperty("perf.tolerance.p99", "0.5"));
+
+    public static final double PERF_TOLERANCE_THROUGHPUT = Double.parseDouble(System.getProperty("perf.tolerance.throughput", "0.3"));
+
+    // Уровень доверия, с которым рост перцентиля считается регрессией
+    public static final double PERF_CONFIDENCE = Double.parseDouble(System.getProperty("perf.confidence", "0.99"));
 }
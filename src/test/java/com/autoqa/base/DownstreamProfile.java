@@ -0,0 +1,199 @@
+package com.autoqa.base;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.http.Fault;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Поведение внешнего сервиса (/auth, /doAction) по задержкам и отказам: мгновенный ответ,
+ * фиксированная или случайная задержка, медленная выдача тела по частям, разрыв соединения,
+ * ответ позже таймаута приложения. Применяется к ответу заглушки через StubRegistry.
+ *
+ * Строковая форма (для -Dmock.profile.auth / -Dmock.profile.doAction), значения в мс:
+ * instant, fixed:200, lognormal:50:0.5 (медиана и sigma), uniform:10:100,
+ * chunked:1000:10 (общее время и число частей), reset, timeout (или timeout:30000).
+ */
+public final class DownstreamProfile {
+
+    private enum Kind {
+        INSTANT, FIXED, LOG_NORMAL, UNIFORM, CHUNKED, RESET, TIMEOUT
+    }
+
+    // Заведомо больше таймаута приложения по умолчанию (-Dmock.timeout.ms, 5 с)
+    private static final Duration DEFAULT_TIMEOUT_DELAY = Duration.ofSeconds(30);
+
+    private static final DownstreamProfile INSTANT = new DownstreamProfile(Kind.INSTANT, 0, 0);
+    private static final DownstreamProfile RESET = new DownstreamProfile(Kind.RESET, 0, 0);
+
+    private final Kind kind;
+    private final double first;
+    private final double second;
+
+    private DownstreamProfile(Kind kind, double first, double second) {
+        this.kind = kind;
+        this.first = first;
+        this.second = second;
+    }
+
+    /**
+     * Ответ без задержки — поведение заглушек по умолчанию
+     */
+    public static DownstreamProfile instant() {
+        return INSTANT;
+    }
+
+    public static DownstreamProfile fixed(Duration delay) {
+        return new DownstreamProfile(Kind.FIXED, requireNonNegative(delay.toMillis()), 0);
+    }
+
+    /**
+     * Логнормальная задержка: большинство ответов около медианы, редкие — в разы медленнее
+     * @param median медиана задержки
+     * @param sigma разброс; 0.1 — почти постоянная задержка, 1 — длинный хвост
+     */
+    public static DownstreamProfile logNormal(Duration median, double sigma) {
+        if (sigma < 0) {
+            throw new IllegalArgumentException("sigma не может быть отрицательной: " + sigma);
+        }
+        return new DownstreamProfile(Kind.LOG_NORMAL, requireNonNegative(median.toMillis()), sigma);
+    }
+
+    public static DownstreamProfile uniform(Duration min, Duration max) {
+        if (max.compareTo(min) < 0) {
+            throw new IllegalArgumentException("Верхняя граница задержки меньше нижней: " + min + " > " + max);
+        }
+        return new DownstreamProfile(Kind.UNIFORM, requireNonNegative(min.toMillis()), max.toMillis());
+    }
+
+    /**
+     * Заголовки приходят сразу, тело выдаётся частями равномерно за total
+     */
+    public static DownstreamProfile chunked(Duration total, int chunks) {
+        if (chunks < 1) {
+            throw new IllegalArgumentException("Число частей должно быть больше 0: " + chunks);
+        }
+        return new DownstreamProfile(Kind.CHUNKED, requireNonNegative(total.toMillis()), chunks);
+    }
+
+    /**
+     * Сервис разрывает соединение (TCP RST) вместо ответа
+     */
+    public static DownstreamProfile connectionReset() {
+        return RESET;
+    }
+
+    /**
+     * Ответ через 30 с — заведомо позже таймаута вызова внешнего сервиса в приложении (по умолчанию 5 с)
+     */
+    public static DownstreamProfile timeout() {
+        return timeout(DEFAULT_TIMEOUT_DELAY);
+    }
+
+    public static DownstreamProfile timeout(Duration delay) {
+        return new DownstreamProfile(Kind.TIMEOUT, requireNonNegative(delay.toMillis()), 0);
+    }
+
+    /**
+     * Профиль из строковой формы (см. описание класса); null или пустая строка — instant
+     */
+    public static DownstreamProfile parse(String spec) {
+        if (spec == null || spec.isBlank()) {
+            return INSTANT;
+        }
+        String[] parts = spec.trim().toLowerCase(Locale.ROOT).split(":");
+        try {
+            switch (parts[0]) {
+                case "instant":
+                    return INSTANT;
+                case "fixed":
+                    return fixed(millis(parts, 1));
+                case "lognormal":
+                    return logNormal(millis(parts, 1), Double.parseDouble(parts[2]));
+                case "uniform":
+                    return uniform(millis(parts, 1), millis(parts, 2));
+                case "chunked":
+                    return chunked(millis(parts, 1), Integer.parseInt(parts[2]));
+                case "reset":
+                    return RESET;
+                case "timeout":
+                    return parts.length > 1 ? timeout(millis(parts, 1)) : timeout();
+                default:
+                    throw new IllegalArgumentException("Неизвестный профиль внешнего сервиса: " + spec);
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            throw new IllegalArgumentException("Некорректный профиль внешнего сервиса: " + spec, e);
+        }
+    }
+
+    /**
+     * Добавляет задержку или отказ к ответу заглушки
+     */
+    public ResponseDefinitionBuilder applyTo(ResponseDefinitionBuilder response) {
+        switch (kind) {
+            case FIXED:
+            case TIMEOUT:
+                return response.withFixedDelay((int) first);
+            case LOG_NORMAL:
+                return response.withLogNormalRandomDelay(first, second);
+            case UNIFORM:
+                return response.withUniformRandomDelay((int) first, (int) second);
+            case CHUNKED:
+                return response.withChunkedDribbleDelay((int) second, (int) first);
+            case RESET:
+                return response.withFault(Fault.CONNECTION_RESET_BY_PEER);
+            default:
+                return response;
+        }
+    }
+
+    public boolean isInstant() {
+        return kind == Kind.INSTANT;
+    }
+
+    @Override
+    public String toString() {
+        switch (kind) {
+            case FIXED:
+                return "fixed:" + (long) first;
+            case LOG_NORMAL:
+                return "lognormal:" + (long) first + ":" + second;
+            case UNIFORM:
+                return "uniform:" + (long) first + ":" + (long) second;
+            case CHUNKED:
+                return "chunked:" + (long) first + ":" + (long) second;
+            case RESET:
+                return "reset";
+            case TIMEOUT:
+                return "timeout:" + (long) first;
+            default:
+                return "instant";
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof DownstreamProfile)) {
+            return false;
+        }
+        DownstreamProfile other = (DownstreamProfile) o;
+        return kind == other.kind && first == other.first && second == other.second;
+    }
+
+    @Override
+    public int hashCode() {
+        return toString().hashCode();
+    }
+
+    private static Duration millis(String[] parts, int index) {
+        return Duration.ofMillis(Long.parseLong(parts[index].trim()));
+    }
+
+    private static long requireNonNegative(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Задержка не может быть отрицательной: " + millis);
+        }
+        return millis;
+    }
+}
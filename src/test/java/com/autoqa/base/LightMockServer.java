@@ -0,0 +1,333 @@
+package com.autoqa.base;
+
+import com.github.tomakehurst.wiremock.client.MappingBuilder;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.http.ChunkedDribbleDelay;
+import com.github.tomakehurst.wiremock.http.DelayDistribution;
+import com.github.tomakehurst.wiremock.http.HttpHeader;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.containing;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+
+/**
+ * Облегчённая замена WireMock для /auth и /doAction на JDK HttpServer (-Dmock.server=light).
+ * Ответ заглушки разбирается один раз при её установке: код, заголовки и тело хранятся готовыми
+ * байтами, а запрос сопоставляется по пути и токену из тела (token=...) поиском в хеш-таблице,
+ * без движка сопоставления WireMock. Задержки, выдача по частям и отказы из DownstreamProfile
+ * и ResponseDefinitionBuilder поддерживаются; задержанные ответы отправляются из планировщика
+ * и не держат поток обработчика.
+ *
+ * Отличия от WireMock: токен сравнивается целиком, а не как подстрока тела; любой Fault
+ * (в том числе CONNECTION_RESET_BY_PEER) — закрытие соединения без ответа, для приложения
+ * это та же ошибка внешнего сервиса. Admin API и журнала запросов нет.
+ */
+public final class LightMockServer implements MockBackend {
+
+    private static final byte[] NOT_FOUND_BODY = "{\"result\":\"NO_STUB\"}".getBytes(StandardCharsets.UTF_8);
+    private static final String TOKEN_PARAM = "token=";
+
+    static {
+        // Без TCP_NODELAY заголовки и тело, записанные отдельно, ждут delayed ACK клиента (~40 мс)
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService handlers;
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, PathStubs> paths = new ConcurrentHashMap<>();
+    private final Map<UUID, Rule> rulesById = new ConcurrentHashMap<>();
+    private volatile boolean running;
+
+    private LightMockServer(int port, int threads) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.handlers = Executors.newFixedThreadPool(threads, daemonThreads("light-mock"));
+        this.scheduler = Executors.newScheduledThreadPool(Math.max(1, threads / 2), daemonThreads("light-mock-delay"));
+        server.setExecutor(handlers);
+        server.createContext("/", this::handle);
+    }
+
+    /**
+     * Запускает сервер на порту; потоков обработчиков — по два на ядро
+     */
+    public static LightMockServer start(int port) {
+        try {
+            LightMockServer mock = new LightMockServer(port, Math.max(2, Runtime.getRuntime().availableProcessors() * 2));
+            mock.server.start();
+            mock.running = true;
+            return mock;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось запустить LightMockServer на порту " + port, e);
+        }
+    }
+
+    @Override
+    public StubMapping stub(UUID id, int priority, String path, String token, ResponseDefinitionBuilder response) {
+        Rule rule = new Rule(id, priority, path, token, response.build());
+        removeStub(id);
+        rulesById.put(id, rule);
+        paths.computeIfAbsent(path, key -> new PathStubs()).add(rule);
+
+        // StubMapping только описывает заглушку для вызывающего (id, путь в сообщениях проверок)
+        MappingBuilder mapping = post(urlEqualTo(path)).withId(id).atPriority(priority);
+        if (token != null) {
+            mapping.withRequestBody(containing(token));
+        }
+        return mapping.willReturn(response).build();
+    }
+
+    @Override
+    public void removeStub(UUID id) {
+        Rule rule = rulesById.remove(id);
+        if (rule != null) {
+            PathStubs stubs = paths.get(rule.path);
+            if (stubs != null) {
+                stubs.remove(rule);
+            }
+        }
+    }
+
+    @Override
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        server.stop(0);
+        scheduler.shutdownNow();
+        handlers.shutdownNow();
+    }
+
+    @Override
+    public String describe() {
+        return "LightMockServer (JDK HttpServer)";
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        byte[] body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = in.readAllBytes();
+        }
+        PathStubs stubs = "POST".equals(exchange.getRequestMethod())
+                ? paths.get(exchange.getRequestURI().getPath())
+                : null;
+        Rule rule = stubs == null ? null : stubs.match(extractToken(body));
+        if (rule == null) {
+            exchange.sendResponseHeaders(404, NOT_FOUND_BODY.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(NOT_FOUND_BODY);
+            }
+            return;
+        }
+        // Как и в WireMock, вызов считается до отправки ответа
+        StubCallCounter.shared().increment(rule.id);
+
+        long delay = rule.delayMillis();
+        if (delay > 0) {
+            scheduler.schedule(() -> respond(exchange, rule), delay, TimeUnit.MILLISECONDS);
+        } else {
+            respond(exchange, rule);
+        }
+    }
+
+    private void respond(HttpExchange exchange, Rule rule) {
+        try {
+            if (rule.fault) {
+                exchange.close();
+                return;
+            }
+            Headers headers = exchange.getResponseHeaders();
+            rule.headers.forEach(headers::put);
+            if (rule.chunks > 0) {
+                // Длина 0 — chunked transfer encoding: заголовки уходят сразу, тело — частями
+                exchange.sendResponseHeaders(rule.status, 0);
+                writeChunk(exchange, rule, 0);
+                return;
+            }
+            exchange.sendResponseHeaders(rule.status, rule.body.length == 0 ? -1 : rule.body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(rule.body);
+            }
+        } catch (IOException e) {
+            // Приложение закрыло соединение, не дождавшись ответа (например, по таймауту)
+            exchange.close();
+        }
+    }
+
+    private void writeChunk(HttpExchange exchange, Rule rule, int index) {
+        try {
+            int from = rule.body.length * index / rule.chunks;
+            int to = rule.body.length * (index + 1) / rule.chunks;
+            OutputStream out = exchange.getResponseBody();
+            out.write(rule.body, from, to - from);
+            out.flush();
+            if (index + 1 == rule.chunks) {
+                out.close();
+                return;
+            }
+            scheduler.schedule(() -> writeChunk(exchange, rule, index + 1), rule.chunkIntervalMillis, TimeUnit.MILLISECONDS);
+        } catch (IOException e) {
+            exchange.close();
+        }
+    }
+
+    // Значение token из тела token=<token>[&...]; без декодирования, если в нём нет экранирования
+    static String extractToken(byte[] body) {
+        String form = new String(body, StandardCharsets.ISO_8859_1);
+        int start;
+        if (form.startsWith(TOKEN_PARAM)) {
+            start = TOKEN_PARAM.length();
+        } else {
+            int param = form.indexOf("&" + TOKEN_PARAM);
+            if (param < 0) {
+                return null;
+            }
+            start = param + 1 + TOKEN_PARAM.length();
+        }
+        int end = form.indexOf('&', start);
+        String value = end < 0 ? form.substring(start) : form.substring(start, end);
+        return value.indexOf('%') < 0 && value.indexOf('+') < 0 ? value : URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        return task -> {
+            Thread thread = new Thread(task, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Заглушки одного пути: по токену и общие (без токена). Выбирается заглушка с наивысшим
+     * приоритетом, при равенстве — поставленная последней, как в WireMock
+     */
+    private static final class PathStubs {
+        private final Map<String, List<Rule>> byToken = new ConcurrentHashMap<>();
+        private final List<Rule> anyToken = new CopyOnWriteArrayList<>();
+
+        void add(Rule rule) {
+            if (rule.token == null) {
+                anyToken.add(rule);
+            } else {
+                byToken.computeIfAbsent(rule.token, key -> new CopyOnWriteArrayList<>()).add(rule);
+            }
+        }
+
+        void remove(Rule rule) {
+            if (rule.token == null) {
+                anyToken.remove(rule);
+                return;
+            }
+            byToken.computeIfPresent(rule.token, (key, rules) -> {
+                rules.remove(rule);
+                return rules.isEmpty() ? null : rules;
+            });
+        }
+
+        Rule match(String token) {
+            Rule best = null;
+            if (token != null) {
+                best = best(byToken.get(token), null);
+            }
+            return best(anyToken, best);
+        }
+
+        private static Rule best(List<Rule> rules, Rule current) {
+            if (rules == null) {
+                return current;
+            }
+            Rule best = current;
+            for (Rule rule : rules) {
+                if (best == null || rule.priority < best.priority
+                        || (rule.priority == best.priority && rule.sequence > best.sequence)) {
+                    best = rule;
+                }
+            }
+            return best;
+        }
+    }
+
+    /**
+     * Заглушка, разобранная в готовый к отправке ответ
+     */
+    private static final class Rule {
+        private static final AtomicLong SEQUENCE = new AtomicLong();
+
+        private final UUID id;
+        private final int priority;
+        private final long sequence = SEQUENCE.incrementAndGet();
+        private final String path;
+        private final String token;
+        private final int status;
+        private final Map<String, List<String>> headers;
+        private final byte[] body;
+        private final long fixedDelayMillis;
+        private final DelayDistribution distribution;
+        private final int chunks;
+        private final long chunkIntervalMillis;
+        private final boolean fault;
+
+        private Rule(UUID id, int priority, String path, String token, ResponseDefinition response) {
+            this.id = id;
+            this.priority = priority;
+            this.path = path;
+            this.token = token;
+            this.status = response.getStatus();
+            Map<String, List<String>> parsedHeaders = new LinkedHashMap<>();
+            if (response.getHeaders() != null) {
+                for (HttpHeader header : response.getHeaders().all()) {
+                    parsedHeaders.put(header.key(), new ArrayList<>(header.values()));
+                }
+            }
+            this.headers = Map.copyOf(parsedHeaders);
+            byte[] bytes = response.getByteBody();
+            this.body = bytes == null ? new byte[0] : bytes;
+            Integer fixed = response.getFixedDelayMilliseconds();
+            this.fixedDelayMillis = fixed == null ? 0 : fixed;
+            this.distribution = response.getDelayDistribution();
+            ChunkedDribbleDelay dribble = response.getChunkedDribbleDelay();
+            this.chunks = dribble == null ? 0 : Math.max(1, dribble.getNumberOfChunks());
+            this.chunkIntervalMillis = dribble == null ? 0 : dribble.getTotalDuration() / (long) chunks;
+            this.fault = response.getFault() != null;
+        }
+
+        long delayMillis() {
+            return fixedDelayMillis + (distribution == null ? 0 : distribution.sampleMillis());
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.autoqa.base;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+
+import java.util.UUID;
+
+/**
+ * Сервер, который изображает внешний сервис (/auth, /doAction) для приложения: WireMock
+ * (WireMockBackend) или облегчённый LightMockServer. Заглушки задаются одинаково —
+ * через ResponseDefinitionBuilder WireMock, поэтому тесты и профили DownstreamProfile
+ * не зависят от выбранного сервера. Число вызовов каждой заглушки считает StubCallCounter.
+ */
+public interface MockBackend {
+
+    /**
+     * Ставит заглушку POST path
+     * @param priority меньшее число — более высокий приоритет, как в WireMock
+     * @param token заглушка срабатывает только на запросы с этим токеном; null — на любые
+     */
+    StubMapping stub(UUID id, int priority, String path, String token, ResponseDefinitionBuilder response);
+
+    /**
+     * Удаляет заглушку; отсутствие заглушки с таким id не ошибка
+     */
+    void removeStub(UUID id);
+
+    int port();
+
+    boolean isRunning();
+
+    void stop();
+
+    /**
+     * Тип сервера и его настройки для журнала запуска
+     */
+    String describe();
+}
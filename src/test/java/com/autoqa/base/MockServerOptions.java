@@ -0,0 +1,74 @@
+package com.autoqa.base;
+
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+/**
+ * Настройки WireMock для тестов и нагрузки. В режиме load (-Dmock.mode=load) журнал запросов
+ * выключен или ограничен кольцевым буфером, ответы с задержкой отдаются асинхронно, пул потоков
+ * Jetty увеличен, а запросы не пишутся в лог. Число вызовов заглушек в обоих режимах считает
+ * StubCallCounter, поэтому проверки не зависят от журнала.
+ */
+public final class MockServerOptions {
+
+    private MockServerOptions() {
+    }
+
+    /**
+     * Режим из -Dmock.mode
+     */
+    public static boolean isLoadMode() {
+        return "load".equalsIgnoreCase(Config.MOCK_MODE);
+    }
+
+    /**
+     * Облегчённый сервер вместо WireMock (-Dmock.server=light)
+     */
+    public static boolean isLightServer() {
+        return "light".equalsIgnoreCase(Config.MOCK_SERVER);
+    }
+
+    /**
+     * Запускает сервер, выбранный -Dmock.server; режим load относится только к WireMock
+     */
+    public static MockBackend startBackend(int port, boolean loadMode) {
+        return isLightServer() ? LightMockServer.start(port) : WireMockBackend.start(port, loadMode);
+    }
+
+    public static WireMockConfiguration forPort(int port) {
+        return forPort(port, isLoadMode());
+    }
+
+    public static WireMockConfiguration forPort(int port, boolean loadMode) {
+        WireMockConfiguration options = options()
+                .port(port)
+                .extensions(StubCallCounter.shared());
+        if (!loadMode) {
+            return options;
+        }
+        // Журнал хранит каждый запрос вместе с ответом: за длинный прогон это миллионы записей,
+        // а verify и resetAll() перебирают его целиком
+        if (Config.MOCK_JOURNAL_MAX_ENTRIES > 0) {
+            options.maxRequestJournalEntries(Config.MOCK_JOURNAL_MAX_ENTRIES);
+        } else {
+            options.disableRequestJournal();
+        }
+        // Асинхронный ответ не держит поток Jetty на время задержки профиля
+        return options
+                .containerThreads(Config.MOCK_CONTAINER_THREADS)
+                .asynchronousResponseEnabled(true)
+                .asynchronousResponseThreads(Config.MOCK_ASYNC_THREADS)
+                .notifier(new ConsoleNotifier(false));
+    }
+
+    public static String describe(boolean loadMode) {
+        if (!loadMode) {
+            return "режим по умолчанию";
+        }
+        return String.format("режим load: журнал %s, потоков Jetty %d, асинхронных ответов %d",
+                Config.MOCK_JOURNAL_MAX_ENTRIES > 0 ? "до " + Config.MOCK_JOURNAL_MAX_ENTRIES + " запросов" : "выключен",
+                Config.MOCK_CONTAINER_THREADS, Config.MOCK_ASYNC_THREADS);
+    }
+}
@@ -0,0 +1,67 @@
+package com.autoqa.base;
+
+import com.autoqa.utils.Attachments;
+import com.autoqa.utils.CleanupReport;
+import com.autoqa.utils.SessionLeaseTracker;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Привязывает сессии к тестам через SessionLeaseTracker: после каждого теста (и его @AfterEach)
+ * сообщает о незакрытых сессиях, а после всего прогона освобождает их одним параллельным LOGOUT.
+ */
+public class SessionLeaseExtension implements BeforeAllCallback, BeforeEachCallback, AfterEachCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(SessionLeaseExtension.class);
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        // Корневой Store закрывается один раз после всех классов прогона
+        context.getRoot().getStore(NAMESPACE)
+                .getOrComputeIfAbsent(EndOfRunRelease.class, key -> new EndOfRunRelease(), EndOfRunRelease.class);
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        SessionLeaseTracker.setOwner(owner(context));
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        String owner = owner(context);
+        SessionLeaseTracker.clearOwner();
+        List<String> leaked = SessionLeaseTracker.leasedBy(owner);
+        if (leaked.isEmpty()) {
+            return;
+        }
+        SessionLeaseTracker.reportLeaks(owner, leaked.size());
+        System.out.println("Незакрытые сессии после " + owner + ": " + leaked);
+        Attachments.text("Незакрытые сессии", () -> String.join("\n", leaked));
+    }
+
+    private static String owner(ExtensionContext context) {
+        return context.getRequiredTestClass().getSimpleName() + "." + context.getRequiredTestMethod().getName();
+    }
+
+    private static class EndOfRunRelease implements ExtensionContext.Store.CloseableResource {
+
+        @Override
+        public void close() {
+            Map<String, Integer> leaks = SessionLeaseTracker.leaksByOwner();
+            if (!leaks.isEmpty()) {
+                System.out.println("Тесты с незакрытыми сессиями:");
+                leaks.forEach((owner, count) -> System.out.println("  " + owner + ": " + count));
+            }
+            if (SessionLeaseTracker.outstanding() > 0) {
+                CleanupReport report = SessionLeaseTracker.releaseAll();
+                System.out.println("Освобождение сессий в конце прогона: " + report);
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.autoqa.base;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Один WireMock на всю JVM: сервер стартует перед первым тестовым классом и
+ * останавливается после завершения всего прогона (через корневой Store JUnit),
+ * а не запускается заново для каждого класса. С -Dmock.server=light вместо WireMock
+ * запускается LightMockServer.
+ */
+public class SharedWireMockExtension implements BeforeAllCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(SharedWireMockExtension.class);
+    private static final int PORT = 8888;
+    private static final Duration READY_TIMEOUT = Duration.ofSeconds(10);
+    private static final HttpClient HEALTH_CLIENT = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+
+    private static volatile SharedServer shared;
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        // getOrComputeIfAbsent синхронизирован, поэтому при параллельных классах сервер стартует один раз
+        shared = context.getRoot().getStore(NAMESPACE)
+                .getOrComputeIfAbsent(SharedServer.class, key -> SharedServer.start(), SharedServer.class);
+    }
+
+    /**
+     * Общий сервер внешнего сервиса; доступен после beforeAll первого класса с этим расширением
+     */
+    public static MockBackend backend() {
+        SharedServer current = shared;
+        if (current == null) {
+            throw new IllegalStateException("WireMock ещё не запущен: подключите SharedWireMockExtension");
+        }
+        return current.backend;
+    }
+
+    /**
+     * Общий WireMockServer; с -Dmock.server=light его нет
+     */
+    public static WireMockServer server() {
+        MockBackend backend = backend();
+        if (!(backend instanceof WireMockBackend)) {
+            throw new IllegalStateException("Запущен " + backend.describe() + ", а не WireMock");
+        }
+        return ((WireMockBackend) backend).server();
+    }
+
+    /**
+     * Сколько занял запуск сервера вместе с ожиданием готовности
+     */
+    public static Duration startupTime() {
+        SharedServer current = shared;
+        return current == null ? Duration.ZERO : current.startupTime;
+    }
+
+    /**
+     * Сервер запущен и отвечает на HTTP-запросы к admin API (у LightMockServer admin API нет)
+     */
+    public static boolean isReady() {
+        SharedServer current = shared;
+        return current != null && isReady(current.backend);
+    }
+
+    private static boolean isReady(MockBackend backend) {
+        if (!(backend instanceof WireMockBackend)) {
+            return backend.isRunning();
+        }
+        WireMockServer server = ((WireMockBackend) backend).server();
+        if (!server.isRunning()) {
+            return false;
+        }
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.port() + "/__admin/mappings?limit=1"))
+                    .timeout(Duration.ofSeconds(1))
+                    .GET()
+                    .build();
+            return HEALTH_CLIENT.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }
+    }
+
+    private static final class SharedServer implements ExtensionContext.Store.CloseableResource {
+
+        private final MockBackend backend;
+        private final Duration startupTime;
+
+        private SharedServer(MockBackend backend, Duration startupTime) {
+            this.backend = backend;
+            this.startupTime = startupTime;
+        }
+
+        static SharedServer start() {
+            long started = System.nanoTime();
+            MockBackend backend = MockServerOptions.startBackend(PORT, MockServerOptions.isLoadMode());
+
+            long deadline = started + READY_TIMEOUT.toNanos();
+            while (!isReady(backend)) {
+                if (System.nanoTime() > deadline) {
+                    backend.stop();
+                    throw new IllegalStateException("WireMock не запустился на " + PORT + "!");
+                }
+                sleepQuietly();
+            }
+            StubRegistry.installDefaults(backend);
+
+            Duration startupTime = Duration.ofNanos(System.nanoTime() - started);
+            System.out.println("WireMock успешно запущен на порту " + PORT + " за " + startupTime.toMillis() + " мс ("
+                    + backend.describe() + ")");
+            return new SharedServer(backend, startupTime);
+        }
+
+        @Override
+        public void close() {
+            backend.stop();
+            shared = null;
+            System.out.println("WireMock остановлен");
+        }
+
+        private static void sleepQuietly() {
+            try {
+                TimeUnit.MILLISECONDS.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Ожидание запуска WireMock прервано", e);
+            }
+        }
+    }
+}
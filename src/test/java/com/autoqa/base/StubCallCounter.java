@@ -0,0 +1,74 @@
+package com.autoqa.base;
+
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformer;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Счётчики вызовов заглушек без журнала запросов WireMock. WireMockBackend подключает
+ * трансформер к каждой заглушке с её id в параметрах, LightMockServer увеличивает счётчик сам.
+ * В обоих случаях вызов считается до отправки ответа, поэтому к моменту, когда приложение
+ * ответило тесту, он уже посчитан. Проверка числа вызовов — чтение LongAdder, а не перебор журнала.
+ */
+public class StubCallCounter extends ResponseDefinitionTransformer {
+
+    public static final String NAME = "stub-call-counter";
+    static final String STUB_ID = "stubId";
+
+    private static final StubCallCounter SHARED = new StubCallCounter();
+
+    private final Map<UUID, LongAdder> calls = new ConcurrentHashMap<>();
+
+    private StubCallCounter() {
+    }
+
+    /**
+     * Общий экземпляр: id заглушек уникальны, поэтому один экземпляр обслуживает все серверы JVM
+     */
+    public static StubCallCounter shared() {
+        return SHARED;
+    }
+
+    @Override
+    public ResponseDefinition transform(Request request, ResponseDefinition responseDefinition,
+                                        FileSource files, Parameters parameters) {
+        Object stubId = parameters.get(STUB_ID);
+        if (stubId != null) {
+            increment(UUID.fromString(stubId.toString()));
+        }
+        return responseDefinition;
+    }
+
+    void increment(UUID stubId) {
+        calls.computeIfAbsent(stubId, id -> new LongAdder()).increment();
+    }
+
+    @Override
+    public boolean applyGlobally() {
+        return false;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    public long count(UUID stubId) {
+        LongAdder adder = calls.get(stubId);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    /**
+     * Удаляет счётчик заглушки, чтобы заглушки отдельных тестов не копились в памяти
+     */
+    void forget(UUID stubId) {
+        calls.remove(stubId);
+    }
+}
@@ -0,0 +1,152 @@
+package com.autoqa.base;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Заглушки /auth и /doAction, привязанные к токену конкретного теста.
+ * Приложение передаёт токен во внешний сервис в теле запроса, поэтому заглушка теста
+ * срабатывает только на его собственный токен и не мешает параллельным тестам.
+ * Общие ответы по умолчанию (200 OK) ставятся один раз с низким приоритетом,
+ * вместо resetAll() тест удаляет только свои заглушки.
+ * Заглушки ставятся через MockBackend, поэтому работают и с WireMock, и с LightMockServer (-Dmock.server).
+ */
+public class StubRegistry {
+
+    public static final String AUTH_PATH = "/auth";
+    public static final String DO_ACTION_PATH = "/doAction";
+
+    // Меньшее число означает более высокий приоритет (как в WireMock)
+    private static final int TOKEN_PRIORITY = 1;
+    private static final int DEFAULT_PRIORITY = 10;
+
+    // Фиксированные id заглушек по умолчанию
+    private static final UUID DEFAULT_AUTH_ID = UUID.fromString("00000000-0000-0000-0000-00000000a017");
+    private static final UUID DEFAULT_DO_ACTION_ID = UUID.fromString("00000000-0000-0000-0000-00000000d0ac");
+
+    private final MockBackend backend;
+    private final List<StubMapping> registered = new ArrayList<>();
+
+    public StubRegistry(MockBackend backend) {
+        this.backend = backend;
+    }
+
+    public StubRegistry(WireMockServer server) {
+        this(new WireMockBackend(server));
+    }
+
+    /**
+     * Ответы по умолчанию для всех токенов: /auth и /doAction отвечают {"result":"OK"}
+     * с профилями из -Dmock.profile.auth и -Dmock.profile.doAction (по умолчанию без задержки)
+     */
+    public static void installDefaults(MockBackend backend) {
+        installDefaults(backend, DownstreamProfile.parse(Config.MOCK_PROFILE_AUTH),
+                DownstreamProfile.parse(Config.MOCK_PROFILE_DO_ACTION));
+    }
+
+    /**
+     * Ответы по умолчанию с заданными профилями задержек и отказов
+     */
+    public static void installDefaults(MockBackend backend, DownstreamProfile auth, DownstreamProfile doAction) {
+        backend.removeStub(DEFAULT_AUTH_ID);
+        backend.removeStub(DEFAULT_DO_ACTION_ID);
+        backend.stub(DEFAULT_AUTH_ID, DEFAULT_PRIORITY, AUTH_PATH, null, auth.applyTo(okResponse()));
+        backend.stub(DEFAULT_DO_ACTION_ID, DEFAULT_PRIORITY, DO_ACTION_PATH, null, doAction.applyTo(okResponse()));
+    }
+
+    /**
+     * Сколько раз сработала заглушка /auth или /doAction по умолчанию (все токены без своих заглушек)
+     */
+    public static long defaultCalls(String path) {
+        if (AUTH_PATH.equals(path)) {
+            return StubCallCounter.shared().count(DEFAULT_AUTH_ID);
+        }
+        if (DO_ACTION_PATH.equals(path)) {
+            return StubCallCounter.shared().count(DEFAULT_DO_ACTION_ID);
+        }
+        throw new IllegalArgumentException("Нет заглушки по умолчанию для " + path);
+    }
+
+    public static ResponseDefinitionBuilder okResponse() {
+        return jsonResponse(200, "{\"result\":\"OK\"}");
+    }
+
+    public static ResponseDefinitionBuilder errorResponse(int status) {
+        return jsonResponse(status, "{\"result\":\"ERROR\"}");
+    }
+
+    public static ResponseDefinitionBuilder jsonResponse(int status, String body) {
+        return aResponse()
+                .withStatus(status)
+                .withHeader("Content-Type", "application/json")
+                .withBody(body);
+    }
+
+    /**
+     * Ответ /auth только для запросов с указанным токеном
+     */
+    public StubMapping stubAuth(String token, ResponseDefinitionBuilder response) {
+        return stub(AUTH_PATH, token, response);
+    }
+
+    /**
+     * Ответ /doAction только для запросов с указанным токеном
+     */
+    public StubMapping stubDoAction(String token, ResponseDefinitionBuilder response) {
+        return stub(DO_ACTION_PATH, token, response);
+    }
+
+    /**
+     * Успешный ответ /auth для токена с задержкой или отказом по профилю
+     */
+    public StubMapping stubAuth(String token, DownstreamProfile profile) {
+        return stub(AUTH_PATH, token, profile.applyTo(okResponse()));
+    }
+
+    /**
+     * Успешный ответ /doAction для токена с задержкой или отказом по профилю
+     */
+    public StubMapping stubDoAction(String token, DownstreamProfile profile) {
+        return stub(DO_ACTION_PATH, token, profile.applyTo(okResponse()));
+    }
+
+    public StubMapping stub(String path, String token, ResponseDefinitionBuilder response) {
+        StubMapping mapping = backend.stub(UUID.randomUUID(), TOKEN_PRIORITY, path, token, response);
+        registered.add(mapping);
+        return mapping;
+    }
+
+    /**
+     * Сколько раз сработала заглушка; считается без журнала запросов, поэтому работает и в режиме load
+     */
+    public long callCount(StubMapping mapping) {
+        return StubCallCounter.shared().count(mapping.getId());
+    }
+
+    /**
+     * Проверяет, что заглушка сработала ровно expected раз
+     */
+    public void verifyCalled(StubMapping mapping, long expected) {
+        assertEquals(expected, callCount(mapping), () -> String.format("Заглушка %s %s: число вызовов",
+                mapping.getRequest().getMethod(), mapping.getRequest().getUrl()));
+    }
+
+    /**
+     * Удаляет только заглушки, созданные через этот реестр
+     */
+    public void clear() {
+        for (StubMapping mapping : registered) {
+            backend.removeStub(mapping.getId());
+            StubCallCounter.shared().forget(mapping.getId());
+        }
+        registered.clear();
+    }
+}
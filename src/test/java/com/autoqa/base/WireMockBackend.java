@@ -0,0 +1,86 @@
+package com.autoqa.base;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.MappingBuilder;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+
+import java.util.UUID;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.containing;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+
+/**
+ * Внешний сервис на WireMock. Каждая заглушка получает трансформер StubCallCounter с её id
+ */
+public class WireMockBackend implements MockBackend {
+
+    private final WireMockServer server;
+    private final boolean loadMode;
+
+    public WireMockBackend(WireMockServer server) {
+        this(server, false);
+    }
+
+    WireMockBackend(WireMockServer server, boolean loadMode) {
+        this.server = server;
+        this.loadMode = loadMode;
+    }
+
+    /**
+     * Запускает WireMock с настройками MockServerOptions
+     */
+    public static WireMockBackend start(int port, boolean loadMode) {
+        WireMockServer server = new WireMockServer(MockServerOptions.forPort(port, loadMode));
+        server.start();
+        return new WireMockBackend(server, loadMode);
+    }
+
+    public WireMockServer server() {
+        return server;
+    }
+
+    @Override
+    public StubMapping stub(UUID id, int priority, String path, String token, ResponseDefinitionBuilder response) {
+        MappingBuilder mapping = post(urlEqualTo(path))
+                .withId(id)
+                .atPriority(priority);
+        if (token != null) {
+            mapping.withRequestBody(containing(token));
+        }
+        return server.stubFor(mapping.willReturn(response
+                .withTransformers(StubCallCounter.NAME)
+                .withTransformerParameter(StubCallCounter.STUB_ID, id.toString())));
+    }
+
+    @Override
+    public void removeStub(UUID id) {
+        // stubFor с тем же id добавляет дубль, поэтому удаляются все заглушки с этим id
+        for (StubMapping mapping : server.getStubMappings()) {
+            if (id.equals(mapping.getId())) {
+                server.removeStub(mapping);
+            }
+        }
+    }
+
+    @Override
+    public int port() {
+        return server.port();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server.isRunning();
+    }
+
+    @Override
+    public void stop() {
+        server.stop();
+    }
+
+    @Override
+    public String describe() {
+        return "WireMock, " + MockServerOptions.describe(loadMode);
+    }
+}
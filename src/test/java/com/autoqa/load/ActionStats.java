@@ -0,0 +1,91 @@
+package com.autoqa.load;
+
+import com.autoqa.metrics.HistogramSnapshot;
+import com.autoqa.metrics.LatencyHistogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Потокобезопасная статистика задержек одного действия (LOGIN, ACTION, LOGOUT)
+ */
+public class ActionStats {
+
+    private final String action;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator minNanos = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    public ActionStats(String action) {
+        this.action = action;
+    }
+
+    /**
+     * Фиксирует один запрос
+     * @param latencyNanos время от отправки до получения ответа
+     * @param success true, если получен ожидаемый код ответа
+     */
+    public void record(long latencyNanos, boolean success) {
+        count.increment();
+        totalNanos.add(latencyNanos);
+        minNanos.accumulate(latencyNanos);
+        maxNanos.accumulate(latencyNanos);
+        histogram.record(latencyNanos);
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * Добавляет значения, полученные от другого процесса. Минимум и максимум берутся
+     * по границам корзин гистограммы, поэтому точны до ~3%
+     * @param errors сколько из этих запросов завершились неожиданным ответом
+     */
+    public void add(HistogramSnapshot latency, long errors) {
+        if (latency.count() == 0) {
+            return;
+        }
+        count.add(latency.count());
+        totalNanos.add(latency.totalNanos());
+        minNanos.accumulate(latency.minNanos());
+        maxNanos.accumulate(latency.maxNanos());
+        histogram.add(latency);
+        this.errors.add(errors);
+    }
+
+    public String action() {
+        return action;
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public long errors() {
+        return errors.sum();
+    }
+
+    public double meanMillis() {
+        long n = count();
+        return n == 0 ? 0 : totalNanos.sum() / (double) n / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public double minMillis() {
+        return count() == 0 ? 0 : minNanos.get() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public double maxMillis() {
+        return maxNanos.get() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Распределение задержек для перцентилей
+     */
+    public HistogramSnapshot latency() {
+        return histogram.snapshot();
+    }
+}
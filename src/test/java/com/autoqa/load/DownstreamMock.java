@@ -0,0 +1,44 @@
+package com.autoqa.load;
+
+import com.autoqa.base.Config;
+import com.autoqa.base.DownstreamProfile;
+import com.autoqa.base.MockBackend;
+import com.autoqa.base.MockServerOptions;
+import com.autoqa.base.StubRegistry;
+
+/**
+ * WireMock для нагрузочных прогонов вне JUnit: /auth и /doAction отвечают OK с профилями
+ * из -Dmock.profile.auth и -Dmock.profile.doAction. Работает до остановки процесса и всегда
+ * запускается в режиме load (см. MockServerOptions): за длинный прогон журнал запросов исчерпал бы память.
+ * С -Dmock.server=light вместо WireMock запускается LightMockServer — для прогонов на пропускную
+ * способность, где сам WireMock становится узким местом.
+ *
+ * Пример: медленный /auth с длинным хвостом задержек
+ * java -Dmock.profile.auth=lognormal:80:0.6 ... com.autoqa.load.DownstreamMock
+ */
+public class DownstreamMock {
+
+    private DownstreamMock() {
+    }
+
+    /**
+     * Параметры: mock.port (8888), mock.container.threads (200), mock.async.threads (16),
+     * mock.journal.max.entries (0), mock.profile.auth, mock.profile.doAction, mock.server (wiremock)
+     */
+    public static void main(String[] args) {
+        int port = Integer.getInteger("mock.port", 8888);
+        MockBackend backend = MockServerOptions.startBackend(port, true);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            System.out.printf("Вызовов: %s — %d, %s — %d%n",
+                    StubRegistry.AUTH_PATH, StubRegistry.defaultCalls(StubRegistry.AUTH_PATH),
+                    StubRegistry.DO_ACTION_PATH, StubRegistry.defaultCalls(StubRegistry.DO_ACTION_PATH));
+            backend.stop();
+        }, "downstream-mock-stop"));
+
+        DownstreamProfile auth = DownstreamProfile.parse(Config.MOCK_PROFILE_AUTH);
+        DownstreamProfile doAction = DownstreamProfile.parse(Config.MOCK_PROFILE_DO_ACTION);
+        StubRegistry.installDefaults(backend, auth, doAction);
+        System.out.printf("Запущен на порту %d: %s; %s — %s, %s — %s%n",
+                port, backend.describe(), StubRegistry.AUTH_PATH, auth, StubRegistry.DO_ACTION_PATH, doAction);
+    }
+}
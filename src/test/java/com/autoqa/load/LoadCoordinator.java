@@ -0,0 +1,301 @@
+package com.autoqa.load;
+
+import com.autoqa.metrics.HistogramCodec;
+import com.autoqa.metrics.HistogramSnapshot;
+import com.autoqa.scenario.Scenarios;
+import com.autoqa.scenario.Workload;
+import com.autoqa.utils.TokenSequencer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Координатор нагрузки из нескольких JVM на одной машине: одна JVM с ApiClient упирается
+ * в собственный CPU и сокеты раньше, чем приложение. Координатор запускает воркеры (LoadWorker)
+ * через ProcessBuilder, раздаёт им план по локальному сокету, стартует их одновременно и
+ * объединяет присланные гистограммы в один LoadReport.
+ *
+ * Токены не пересекаются: все воркеры получают общий token.run.id координатора и собственный
+ * token.process.id (номер воркера), из которых TokenSequencer строит непересекающиеся диапазоны.
+ */
+public class LoadCoordinator {
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(60);
+    private static final Duration EXIT_TIMEOUT = Duration.ofSeconds(30);
+
+    // Свойства, которые передаются воркерам: адреса приложения, маршрутизация, настройки клиента
+    private static final List<String> FORWARDED_PREFIXES =
+            List.of("base.", "target.", "api.client.", "load.platform.", "mock.");
+
+    private int workers = 2;
+    private int usersPerWorker = 10;
+    private int iterations = 1;
+    private Duration duration;
+    private int actionsPerSession = 1;
+    private String workload;
+    private Duration reportInterval = Duration.ofSeconds(1);
+    private List<String> jvmOptions = List.of();
+
+    private final Map<String, ActionStats> stats = new ConcurrentHashMap<>();
+    private final LongAdder sessions = new LongAdder();
+    private final Queue<String> failures = new ConcurrentLinkedQueue<>();
+    private volatile String executorKind = "";
+
+    /**
+     * Число JVM-воркеров
+     */
+    public LoadCoordinator workers(int workers) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Число воркеров должно быть больше 0: " + workers);
+        }
+        this.workers = workers;
+        return this;
+    }
+
+    /**
+     * Виртуальных пользователей в каждом воркере
+     */
+    public LoadCoordinator usersPerWorker(int usersPerWorker) {
+        this.usersPerWorker = usersPerWorker;
+        return this;
+    }
+
+    public LoadCoordinator iterations(int iterations) {
+        this.iterations = iterations;
+        return this;
+    }
+
+    public LoadCoordinator duration(Duration duration) {
+        this.duration = duration;
+        return this;
+    }
+
+    public LoadCoordinator actionsPerSession(int actionsPerSession) {
+        this.actionsPerSession = actionsPerSession;
+        return this;
+    }
+
+    /**
+     * Смесь сценариев в строковой форме Scenarios.parseWorkload. Сценарии с заглушками
+     * не поддерживаются: у воркеров нет своего WireMock
+     */
+    public LoadCoordinator workload(String workload) {
+        if (Scenarios.parseWorkload(workload).requiresStubs()) {
+            throw new IllegalArgumentException("Сценарии с заглушками нельзя выполнять в воркерах: " + workload);
+        }
+        this.workload = workload;
+        return this;
+    }
+
+    /**
+     * Как часто воркеры присылают промежуточные гистограммы
+     */
+    public LoadCoordinator reportInterval(Duration reportInterval) {
+        this.reportInterval = reportInterval;
+        return this;
+    }
+
+    /**
+     * Дополнительные параметры JVM воркеров, например -Xmx512m
+     */
+    public LoadCoordinator jvmOptions(List<String> jvmOptions) {
+        this.jvmOptions = List.copyOf(jvmOptions);
+        return this;
+    }
+
+    public LoadReport run() throws IOException, InterruptedException {
+        for (String action : List.of("LOGIN", "ACTION", "LOGOUT")) {
+            statsFor(action);
+        }
+        LoadPlan plan = new LoadPlan(usersPerWorker, iterations, duration, actionsPerSession, workload, reportInterval);
+        List<Process> processes = new ArrayList<>(workers);
+        Socket[] sockets = new Socket[workers];
+        try (ServerSocket server = new ServerSocket(0, workers, InetAddress.getLoopbackAddress())) {
+            server.setSoTimeout((int) CONNECT_TIMEOUT.toMillis());
+            for (int i = 0; i < workers; i++) {
+                processes.add(startWorker(i, server.getLocalPort()));
+            }
+
+            DataInputStream[] inputs = new DataInputStream[workers];
+            DataOutputStream[] outputs = new DataOutputStream[workers];
+            for (int i = 0; i < workers; i++) {
+                Socket socket = server.accept();
+                socket.setTcpNoDelay(true);
+                DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                if (in.readInt() != LoadWorker.MAGIC) {
+                    socket.close();
+                    throw new IOException("К координатору подключился не воркер нагрузки");
+                }
+                int index = in.readInt();
+                if (index < 0 || index >= workers || sockets[index] != null) {
+                    socket.close();
+                    throw new IOException("Некорректный номер воркера: " + index);
+                }
+                sockets[index] = socket;
+                inputs[index] = in;
+                outputs[index] = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+                plan.write(outputs[index]);
+                outputs[index].flush();
+            }
+            for (int i = 0; i < workers; i++) {
+                expect(inputs[i], LoadWorker.READY, i);
+            }
+
+            // Общий старт: воркеры уже запущены и прогреты загрузкой классов
+            long start = System.nanoTime();
+            for (DataOutputStream out : outputs) {
+                out.writeByte(LoadWorker.START);
+                out.flush();
+            }
+            List<Thread> readers = new ArrayList<>(workers);
+            for (int i = 0; i < workers; i++) {
+                int index = i;
+                Thread reader = new Thread(() -> readResults(index, inputs[index]), "load-coordinator-" + i);
+                reader.start();
+                readers.add(reader);
+            }
+            for (Thread reader : readers) {
+                reader.join();
+            }
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+            if (!failures.isEmpty()) {
+                throw new IllegalStateException("Воркеры завершились с ошибкой: " + String.join("; ", failures));
+            }
+            return new LoadReport(workers * usersPerWorker, workers + " JVM × " + executorKind,
+                    "уникальные, прогон " + TokenSequencer.RUN_ID + ", token.process.id 0.." + (workers - 1),
+                    describeWorkload(), sessions.sum(), elapsed, SessionLoadEngine.ordered(stats), List.of());
+        } finally {
+            for (Socket socket : sockets) {
+                if (socket != null) {
+                    socket.close();
+                }
+            }
+            stopWorkers(processes);
+        }
+    }
+
+    private Process startWorker(int index, int port) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmOptions);
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (FORWARDED_PREFIXES.stream().anyMatch(name::startsWith)) {
+                command.add("-D" + name + "=" + System.getProperty(name));
+            }
+        }
+        command.add("-Dtoken.run.id=" + TokenSequencer.RUN_ID);
+        command.add("-Dtoken.process.id=" + index);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(LoadWorker.class.getName());
+        command.add(String.valueOf(port));
+        command.add(String.valueOf(index));
+        return new ProcessBuilder(command).inheritIO().start();
+    }
+
+    private void readResults(int index, DataInputStream in) {
+        try {
+            while (true) {
+                byte message = in.readByte();
+                if (message == LoadWorker.HISTOGRAMS) {
+                    int actions = in.readInt();
+                    for (int i = 0; i < actions; i++) {
+                        String action = in.readUTF();
+                        long errors = in.readLong();
+                        HistogramSnapshot latency = HistogramCodec.read(in);
+                        statsFor(action).add(latency, errors);
+                    }
+                } else if (message == LoadWorker.DONE) {
+                    sessions.add(in.readLong());
+                    in.readLong();
+                    executorKind = in.readUTF();
+                    return;
+                } else if (message == LoadWorker.FAILED) {
+                    failures.add("воркер " + index + ": " + in.readUTF());
+                    return;
+                } else {
+                    failures.add("воркер " + index + ": неизвестное сообщение " + message);
+                    return;
+                }
+            }
+        } catch (EOFException e) {
+            failures.add("воркер " + index + " закрыл соединение до завершения");
+        } catch (IOException e) {
+            failures.add("воркер " + index + ": " + e);
+        }
+    }
+
+    private ActionStats statsFor(String action) {
+        return stats.computeIfAbsent(action, ActionStats::new);
+    }
+
+    private String describeWorkload() {
+        Workload effective = workload != null
+                ? Scenarios.parseWorkload(workload)
+                : Workload.of(Scenarios.sessionLifecycle(actionsPerSession));
+        return effective.describe();
+    }
+
+    private static void expect(DataInputStream in, byte expected, int index) throws IOException {
+        byte message = in.readByte();
+        if (message == LoadWorker.FAILED) {
+            throw new IOException("Воркер " + index + " не смог подготовить прогон: " + in.readUTF());
+        }
+        if (message != expected) {
+            throw new IOException("Воркер " + index + " прислал " + message + " вместо " + expected);
+        }
+    }
+
+    private static void stopWorkers(List<Process> processes) throws InterruptedException {
+        for (Process process : processes) {
+            if (!process.waitFor(EXIT_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    /**
+     * Запуск из командной строки, параметры передаются системными свойствами:
+     * load.workers, load.users (на воркер), load.iterations, load.duration.sec, load.actions, load.workload,
+     * load.worker.jvm.options (через пробел)
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        LoadCoordinator coordinator = new LoadCoordinator()
+                .workers(Integer.getInteger("load.workers", 2))
+                .usersPerWorker(Integer.getInteger("load.users", 10))
+                .iterations(Integer.getInteger("load.iterations", 1))
+                .actionsPerSession(Integer.getInteger("load.actions", 1));
+        Integer durationSec = Integer.getInteger("load.duration.sec");
+        if (durationSec != null) {
+            coordinator.duration(Duration.ofSeconds(durationSec));
+        }
+        String workload = System.getProperty("load.workload");
+        if (workload != null) {
+            coordinator.workload(workload);
+        }
+        String jvmOptions = System.getProperty("load.worker.jvm.options");
+        if (jvmOptions != null && !jvmOptions.isBlank()) {
+            coordinator.jvmOptions(List.of(jvmOptions.trim().split("\\s+")));
+        }
+        System.out.println(coordinator.run().format());
+        System.exit(0);
+    }
+}
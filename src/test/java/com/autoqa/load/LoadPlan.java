@@ -0,0 +1,58 @@
+package com.autoqa.load;
+
+import com.autoqa.scenario.Scenarios;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Часть нагрузки, которую координатор передаёт одному воркеру
+ * @param users виртуальных пользователей в воркере
+ * @param iterations сессий на пользователя (если duration не задана)
+ * @param duration длительность прогона или null
+ * @param actionsPerSession ACTION между LOGIN и LOGOUT в сценарии по умолчанию
+ * @param workload смесь сценариев в виде строки Scenarios.parseWorkload или null
+ * @param reportInterval как часто воркер отправляет промежуточные гистограммы
+ */
+public record LoadPlan(int users, int iterations, Duration duration, int actionsPerSession, String workload,
+                       Duration reportInterval) {
+
+    void write(DataOutput out) throws IOException {
+        out.writeInt(users);
+        out.writeInt(iterations);
+        out.writeLong(duration == null ? -1 : duration.toMillis());
+        out.writeInt(actionsPerSession);
+        out.writeUTF(workload == null ? "" : workload);
+        out.writeLong(reportInterval.toMillis());
+    }
+
+    static LoadPlan read(DataInput in) throws IOException {
+        int users = in.readInt();
+        int iterations = in.readInt();
+        long durationMillis = in.readLong();
+        int actionsPerSession = in.readInt();
+        String workload = in.readUTF();
+        long reportIntervalMillis = in.readLong();
+        return new LoadPlan(users, iterations, durationMillis < 0 ? null : Duration.ofMillis(durationMillis),
+                actionsPerSession, workload.isEmpty() ? null : workload, Duration.ofMillis(reportIntervalMillis));
+    }
+
+    /**
+     * Движок с параметрами плана
+     */
+    SessionLoadEngine toEngine() {
+        SessionLoadEngine engine = new SessionLoadEngine()
+                .users(users)
+                .iterations(iterations)
+                .actionsPerSession(actionsPerSession);
+        if (duration != null) {
+            engine.duration(duration);
+        }
+        if (workload != null) {
+            engine.workload(Scenarios.parseWorkload(workload));
+        }
+        return engine;
+    }
+}
@@ -0,0 +1,132 @@
+package com.autoqa.load;
+
+import com.autoqa.metrics.HistogramSnapshot;
+import com.autoqa.utils.TargetStats;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Итог прогона нагрузки: пропускная способность и задержки по каждому действию
+ */
+public class LoadReport {
+
+    private final int users;
+    private final String executorKind;
+    private final String tokenSource;
+    private final String workload;
+    private final long sessions;
+    private final Duration elapsed;
+    private final List<ActionStats> actions;
+    private final List<TargetStats> targets;
+
+    public LoadReport(int users, String executorKind, String tokenSource, String workload, long sessions,
+                      Duration elapsed, List<ActionStats> actions, List<TargetStats> targets) {
+        this.users = users;
+        this.executorKind = executorKind;
+        this.tokenSource = tokenSource;
+        this.workload = workload;
+        this.sessions = sessions;
+        this.elapsed = elapsed;
+        this.actions = List.copyOf(actions);
+        this.targets = List.copyOf(targets);
+    }
+
+    public int users() {
+        return users;
+    }
+
+    public String executorKind() {
+        return executorKind;
+    }
+
+    /**
+     * Источник токенов прогона: seed (передайте его в load.token.seed, чтобы повторить те же токены)
+     * или id прогона уникальных токенов
+     */
+    public String tokenSource() {
+        return tokenSource;
+    }
+
+    /**
+     * Сценарии прогона с весами
+     */
+    public String workload() {
+        return workload;
+    }
+
+    public long sessions() {
+        return sessions;
+    }
+
+    public Duration elapsed() {
+        return elapsed;
+    }
+
+    public List<ActionStats> actions() {
+        return actions;
+    }
+
+    /**
+     * Запросы и задержки по экземплярам приложения за прогон
+     */
+    public List<TargetStats> targets() {
+        return targets;
+    }
+
+    public long requests() {
+        return actions.stream().mapToLong(ActionStats::count).sum();
+    }
+
+    public long errors() {
+        return actions.stream().mapToLong(ActionStats::errors).sum();
+    }
+
+    public double requestsPerSecond() {
+        return perSecond(requests());
+    }
+
+    public double sessionsPerSecond() {
+        return perSecond(sessions);
+    }
+
+    private double perSecond(long value) {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : value * 1_000_000_000.0 / nanos;
+    }
+
+    /**
+     * Текстовая таблица для вывода в консоль или вложения в Allure
+     */
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Пользователей: %d (%s), сессий: %d, запросов: %d, ошибок: %d%n",
+                users, executorKind, sessions, requests(), errors()));
+        sb.append(String.format("Длительность: %.3f с, запросов/с: %.1f, сессий/с: %.1f, токены: %s%n",
+                elapsed.toNanos() / 1e9, requestsPerSecond(), sessionsPerSecond(), tokenSource));
+        sb.append("Сценарии: ").append(workload).append(System.lineSeparator());
+        sb.append(String.format("%-8s %10s %8s %10s %10s %10s %10s %10s %10s%n",
+                "action", "count", "errors", "mean,ms", "min,ms", "p50,ms", "p99,ms", "p99.9,ms", "max,ms"));
+        for (ActionStats stats : actions) {
+            HistogramSnapshot latency = stats.latency();
+            sb.append(String.format("%-8s %10d %8d %10.2f %10.2f %10.2f %10.2f %10.2f %10.2f%n",
+                    stats.action(), stats.count(), stats.errors(),
+                    stats.meanMillis(), stats.minMillis(), percentile(latency, 50, stats),
+                    percentile(latency, 99, stats), percentile(latency, 99.9, stats), stats.maxMillis()));
+        }
+        if (targets.size() > 1) {
+            sb.append(TargetStats.format(targets));
+        }
+        return sb.toString();
+    }
+
+    // Перцентиль гистограммы — верхняя граница корзины, поэтому ограничивается точным максимумом
+    private static double percentile(HistogramSnapshot latency, double percentile, ActionStats stats) {
+        return Math.min(latency.percentileMillis(percentile), stats.maxMillis());
+    }
+
+    @Override
+    public String toString() {
+        return format();
+    }
+}
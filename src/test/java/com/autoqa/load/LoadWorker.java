@@ -0,0 +1,157 @@
+package com.autoqa.load;
+
+import com.autoqa.metrics.HistogramCodec;
+import com.autoqa.metrics.HistogramSnapshot;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Воркер распределённой нагрузки: отдельная JVM, которую запускает LoadCoordinator.
+ * Получает план по локальному сокету, ждёт общего старта, выполняет свою часть через
+ * SessionLoadEngine и периодически отправляет координатору приросты гистограмм по действиям.
+ *
+ * Протокол (DataOutputStream):
+ * <pre>
+ *   воркер → MAGIC, номер воркера;   координатор → LoadPlan
+ *   воркер → READY;                  координатор → START
+ *   воркер → HISTOGRAMS ... HISTOGRAMS, затем DONE (или FAILED с текстом ошибки)
+ * </pre>
+ */
+public class LoadWorker {
+
+    static final int MAGIC = 0x4C4F4144;
+    static final byte READY = 1;
+    static final byte START = 2;
+    static final byte HISTOGRAMS = 3;
+    static final byte DONE = 4;
+    static final byte FAILED = 5;
+
+    private final DataOutputStream out;
+    // Что уже отправлено по каждому действию: следующая отправка содержит только прирост
+    private final Map<String, HistogramSnapshot> sentLatency = new HashMap<>();
+    private final Map<String, Long> sentErrors = new HashMap<>();
+
+    private LoadWorker(DataOutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Аргументы: порт координатора на loopback и номер воркера
+     */
+    public static void main(String[] args) throws IOException {
+        int port = Integer.parseInt(args[0]);
+        int index = Integer.parseInt(args[1]);
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            out.writeInt(MAGIC);
+            out.writeInt(index);
+            out.flush();
+
+            LoadPlan plan = LoadPlan.read(in);
+            new LoadWorker(out).run(plan, in);
+        }
+        // Пулы HTTP-клиентов держат недемонические потоки
+        System.exit(0);
+    }
+
+    private void run(LoadPlan plan, DataInputStream in) throws IOException {
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "load-worker-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            SessionLoadEngine engine = plan.toEngine();
+            send(READY);
+            if (in.readByte() != START) {
+                throw new IOException("Ожидалась команда START от координатора");
+            }
+            long interval = plan.reportInterval().toMillis();
+            reporter.scheduleAtFixedRate(() -> sendDeltaQuietly(engine.liveStats().values()),
+                    interval, interval, TimeUnit.MILLISECONDS);
+
+            LoadReport report = engine.run();
+            reporter.shutdownNow();
+            reporter.awaitTermination(10, TimeUnit.SECONDS);
+
+            synchronized (this) {
+                sendDelta(report.actions());
+                out.writeByte(DONE);
+                out.writeLong(report.sessions());
+                out.writeLong(report.elapsed().toNanos());
+                out.writeUTF(report.executorKind());
+                out.flush();
+            }
+        } catch (Exception e) {
+            reporter.shutdownNow();
+            synchronized (this) {
+                out.writeByte(FAILED);
+                out.writeUTF(String.valueOf(e));
+                out.flush();
+            }
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private synchronized void send(byte message) throws IOException {
+        out.writeByte(message);
+        out.flush();
+    }
+
+    private void sendDeltaQuietly(Collection<ActionStats> stats) {
+        try {
+            synchronized (this) {
+                sendDelta(stats);
+            }
+        } catch (IOException e) {
+            // Координатор недоступен: итог всё равно не будет доставлен, прогон завершится с ошибкой записи DONE
+        }
+    }
+
+    // HISTOGRAMS, число действий, затем для каждого: действие, прирост ошибок, прирост гистограммы
+    private void sendDelta(Collection<ActionStats> stats) throws IOException {
+        List<ActionStats> changed = new ArrayList<>();
+        List<HistogramSnapshot> deltas = new ArrayList<>();
+        for (ActionStats actionStats : stats) {
+            HistogramSnapshot current = actionStats.latency();
+            HistogramSnapshot delta = current.minus(sentLatency.getOrDefault(actionStats.action(), HistogramSnapshot.empty()));
+            if (delta.count() > 0) {
+                changed.add(actionStats);
+                deltas.add(delta);
+                sentLatency.put(actionStats.action(), current);
+            }
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+        out.writeByte(HISTOGRAMS);
+        out.writeInt(changed.size());
+        for (int i = 0; i < changed.size(); i++) {
+            ActionStats actionStats = changed.get(i);
+            long errors = actionStats.errors();
+            out.writeUTF(actionStats.action());
+            out.writeLong(errors - sentErrors.getOrDefault(actionStats.action(), 0L));
+            sentErrors.put(actionStats.action(), errors);
+            HistogramCodec.write(deltas.get(i), out);
+        }
+        out.flush();
+    }
+}
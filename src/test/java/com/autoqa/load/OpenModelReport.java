@@ -0,0 +1,166 @@
+package com.autoqa.load;
+
+import com.autoqa.metrics.HistogramSnapshot;
+import com.autoqa.utils.TargetStats;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Итог прогона с постоянной интенсивностью поступления запросов.
+ * latency — время от запланированного момента отправки до ответа (с поправкой на coordinated omission),
+ * serviceTime — от фактической отправки клиентом (после ожидания слота лимита) до ответа,
+ * schedulerLag — насколько генератор опоздал с отправкой относительно расписания.
+ * Запросы без ответа к концу ожидания (unfinished) входят в latency, но не в serviceTime.
+ */
+public class OpenModelReport {
+
+    // Опоздание генератора, после которого его собственные задержки искажают результат
+    static final long BEHIND_THRESHOLD_NANOS = Duration.ofMillis(1).toNanos();
+
+    private final String action;
+    private final double targetRate;
+    private final boolean poisson;
+    private final long scheduled;
+    private final long completed;
+    private final long errors;
+    private final long unfinished;
+    private final long lateSends;
+    private final long saturatedSends;
+    private final Duration elapsed;
+    private final HistogramSnapshot latency;
+    private final HistogramSnapshot serviceTime;
+    private final HistogramSnapshot schedulerLag;
+    private final List<TargetStats> targets;
+
+    public OpenModelReport(String action, double targetRate, boolean poisson, long scheduled, long completed,
+                           long errors, long unfinished, long lateSends, long saturatedSends, Duration elapsed,
+                           HistogramSnapshot latency, HistogramSnapshot serviceTime, HistogramSnapshot schedulerLag,
+                           List<TargetStats> targets) {
+        this.action = action;
+        this.targetRate = targetRate;
+        this.poisson = poisson;
+        this.scheduled = scheduled;
+        this.completed = completed;
+        this.errors = errors;
+        this.unfinished = unfinished;
+        this.lateSends = lateSends;
+        this.saturatedSends = saturatedSends;
+        this.elapsed = elapsed;
+        this.latency = latency;
+        this.serviceTime = serviceTime;
+        this.schedulerLag = schedulerLag;
+        this.targets = List.copyOf(targets);
+    }
+
+    public double targetRate() {
+        return targetRate;
+    }
+
+    public double achievedRate() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : scheduled * 1_000_000_000.0 / nanos;
+    }
+
+    public long scheduled() {
+        return scheduled;
+    }
+
+    public long completed() {
+        return completed;
+    }
+
+    public long errors() {
+        return errors;
+    }
+
+    /**
+     * Сколько запросов не получили ответа за время ожидания после окончания расписания
+     */
+    public long unfinished() {
+        return unfinished;
+    }
+
+    /**
+     * Все запланированные запросы завершились; иначе задержки незавершённых занижены до времени ожидания
+     */
+    public boolean isComplete() {
+        return unfinished == 0;
+    }
+
+    /**
+     * Сколько запросов отправлено позже расписания больше чем на 1 мс
+     */
+    public long lateSends() {
+        return lateSends;
+    }
+
+    /**
+     * Сколько запросов ждали свободного слота лимита асинхронного клиента
+     */
+    public long saturatedSends() {
+        return saturatedSends;
+    }
+
+    public HistogramSnapshot latency() {
+        return latency;
+    }
+
+    public HistogramSnapshot serviceTime() {
+        return serviceTime;
+    }
+
+    public HistogramSnapshot schedulerLag() {
+        return schedulerLag;
+    }
+
+    /**
+     * Запросы и время обслуживания по экземплярам приложения
+     */
+    public List<TargetStats> targets() {
+        return targets;
+    }
+
+    /**
+     * Генератор не выдержал расписание: p99 опоздания отправки выше 1 мс.
+     * В этом случае нагрузка была ниже заданной, а задержки частично вызваны самим генератором.
+     */
+    public boolean generatorFellBehind() {
+        return schedulerLag.percentileNanos(99) > BEHIND_THRESHOLD_NANOS;
+    }
+
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%s: интенсивность %.1f/с (%s), фактически %.1f/с, запланировано %d, завершено %d, ошибок %d%n",
+                action, targetRate, poisson ? "пуассоновский поток" : "равномерно", achievedRate(),
+                scheduled, completed, errors));
+        if (!isComplete()) {
+            sb.append(String.format("ВНИМАНИЕ: прогон неполный, без ответа осталось %d запросов; "
+                    + "их задержка учтена до окончания ожидания%n", unfinished));
+        }
+        sb.append(String.format("%-22s %9s %9s %9s %9s %9s%n", "", "p50,ms", "p90,ms", "p99,ms", "p99.9,ms", "max,ms"));
+        appendRow(sb, "задержка (от плана)", latency);
+        appendRow(sb, "время обслуживания", serviceTime);
+        appendRow(sb, "опоздание генератора", schedulerLag);
+        sb.append(String.format("Отправлено с опозданием > 1 мс: %d, ожидали слота клиента: %d%n", lateSends, saturatedSends));
+        if (generatorFellBehind()) {
+            sb.append("ВНИМАНИЕ: генератор не успевает за расписанием, результаты занижают нагрузку")
+                    .append(System.lineSeparator());
+        }
+        if (targets.size() > 1) {
+            sb.append(TargetStats.format(targets));
+        }
+        return sb.toString();
+    }
+
+    private static void appendRow(StringBuilder sb, String name, HistogramSnapshot h) {
+        sb.append(String.format("%-22s %9.2f %9.2f %9.2f %9.2f %9.2f%n", name,
+                h.percentileMillis(50), h.percentileMillis(90), h.percentileMillis(99),
+                h.percentileMillis(99.9), h.maxMillis()));
+    }
+
+    @Override
+    public String toString() {
+        return format();
+    }
+}
@@ -0,0 +1,304 @@
+package com.autoqa.load;
+
+import com.autoqa.base.Config;
+import com.autoqa.metrics.LatencyHistogram;
+import com.autoqa.utils.ApiResponse;
+import com.autoqa.utils.AsyncApiClient;
+import com.autoqa.utils.CleanupReport;
+import com.autoqa.utils.SessionCleanupService;
+import com.autoqa.utils.TargetSet;
+import com.autoqa.utils.TargetStats;
+import com.autoqa.utils.TokenSequencer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Открытая модель нагрузки: запросы отправляются с заданной интенсивностью (запросов в секунду)
+ * независимо от того, как быстро отвечает сервис. В отличие от SessionLoadEngine, где пользователь
+ * ждёт ответа перед следующим запросом, медленный ответ здесь не откладывает следующие отправки.
+ * Задержка считается от запланированного момента отправки, поэтому время, которое запрос
+ * провёл бы в очереди у живого клиента, попадает в результат (поправка на coordinated omission).
+ * Запросы, не завершившиеся за DRAIN_TIMEOUT после окончания расписания, тоже попадают в задержку —
+ * со значением «от плана до окончания ожидания», а отчёт помечается как неполный.
+ *
+ * Экземпляр одноразовый: гистограммы и счётчики копятся в полях, а каждый прогон создаёт свой
+ * AsyncApiClient, поэтому повторный run() отклоняется — для нового прогона нужен новый экземпляр.
+ */
+public class OpenModelRunner {
+
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+    private double rate = 100;
+    private Duration duration = Duration.ofSeconds(10);
+    private String action = "ACTION";
+    private int sessions = 100;
+    private int maxInFlight = 1000;
+    private boolean poisson;
+    private Long seed;
+    private String apiKey = Config.API_KEY;
+    private TargetSet targets = TargetSet.defaultTargets();
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LatencyHistogram serviceTime = new LatencyHistogram();
+    private final LatencyHistogram schedulerLag = new LatencyHistogram();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    // Незавершённые запросы: номер → запланированный момент отправки
+    private final Map<Long, Long> outstanding = new ConcurrentHashMap<>();
+    private final Queue<String> openedSessions = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    /**
+     * Интенсивность поступления запросов, в секунду
+     */
+    public OpenModelRunner rate(double rate) {
+        if (rate <= 0) {
+            throw new IllegalArgumentException("Интенсивность должна быть больше 0: " + rate);
+        }
+        this.rate = rate;
+        return this;
+    }
+
+    public OpenModelRunner duration(Duration duration) {
+        this.duration = duration;
+        return this;
+    }
+
+    /**
+     * Отправляемое действие: ACTION (по пулу заранее открытых сессий) или LOGIN (каждый раз новый токен)
+     */
+    public OpenModelRunner action(String action) {
+        if (!"ACTION".equals(action) && !"LOGIN".equals(action)) {
+            throw new IllegalArgumentException("Поддерживаются ACTION и LOGIN: " + action);
+        }
+        this.action = action;
+        return this;
+    }
+
+    /**
+     * Сколько сессий открывается перед прогоном ACTION; запросы распределяются по ним по кругу
+     */
+    public OpenModelRunner sessions(int sessions) {
+        this.sessions = sessions;
+        return this;
+    }
+
+    /**
+     * Лимит одновременных запросов асинхронного клиента. Запросы сверх лимита ждут в очереди,
+     * и это ожидание входит в задержку от плана
+     */
+    public OpenModelRunner maxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+        return this;
+    }
+
+    /**
+     * Пуассоновский поток вместо равномерного: интервалы между запросами случайны
+     * (экспоненциальное распределение) при той же средней интенсивности
+     */
+    public OpenModelRunner poisson(boolean poisson) {
+        this.poisson = poisson;
+        return this;
+    }
+
+    /**
+     * Seed для интервалов пуассоновского потока
+     */
+    public OpenModelRunner seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public OpenModelRunner apiKey(String apiKey) {
+        this.apiKey = apiKey;
+        return this;
+    }
+
+    /**
+     * Экземпляры приложения и маршрутизация, по умолчанию из -Dbase.urls и -Dtarget.routing
+     */
+    public OpenModelRunner targets(TargetSet targets) {
+        this.targets = targets;
+        return this;
+    }
+
+    public OpenModelReport run() throws InterruptedException {
+        if (!started.compareAndSet(false, true)) {
+            throw new IllegalStateException("OpenModelRunner уже запускался: для нового прогона создайте новый экземпляр");
+        }
+        AsyncApiClient client = AsyncApiClient.create(targets, maxInFlight);
+        TokenSequencer tokens = TokenSequencer.newWorker();
+        List<String> pool = "ACTION".equals(action) ? openSessions(client, tokens) : List.of();
+        SplittableRandom random = seed != null ? new SplittableRandom(seed) : new SplittableRandom();
+        double periodNanos = 1_000_000_000.0 / rate;
+
+        List<TargetStats> targetsAtStart = targets.snapshot();
+        long scheduled = 0;
+        long lateSends = 0;
+        long saturatedSends = 0;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        double offset = 0;
+        long intended = start;
+        try {
+            while (intended < end) {
+                long now = waitUntil(intended);
+                long lag = now - intended;
+                schedulerLag.record(lag);
+                if (lag > OpenModelReport.BEHIND_THRESHOLD_NANOS) {
+                    lateSends++;
+                }
+                if (client.inFlight() >= client.maxInFlight()) {
+                    saturatedSends++;
+                }
+                String token = pool.isEmpty() ? tokens.next() : pool.get((int) (scheduled % pool.size()));
+                send(client, scheduled, token, intended);
+                scheduled++;
+                // Расписание строится от начала прогона, а не от фактической отправки: опоздание
+                // генератора не сдвигает следующие запросы, они уходят пачкой, догоняя план
+                offset += poisson ? -Math.log(1 - random.nextDouble()) * periodNanos : periodNanos;
+                intended = start + (long) offset;
+            }
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+            long unfinished = awaitCompletion(scheduled);
+            return new OpenModelReport(action, rate, poisson, scheduled, completed.sum(), errors.sum(), unfinished,
+                    lateSends, saturatedSends, elapsed,
+                    latency.snapshot(), serviceTime.snapshot(), schedulerLag.snapshot(),
+                    TargetStats.difference(targets.snapshot(), targetsAtStart));
+        } finally {
+            releaseSessions(client);
+        }
+    }
+
+    private void send(AsyncApiClient client, long sequence, String token, long intended) {
+        outstanding.put(sequence, intended);
+        // Время обслуживания — от фактической отправки клиентом, без ожидания слота лимита
+        AtomicLong dispatchedAt = new AtomicLong();
+        CompletableFuture<ApiResponse> response;
+        try {
+            response = client.sendPost(token, action, apiKey, dispatchedAt::set);
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        response.whenComplete((result, error) -> {
+            long done = System.nanoTime();
+            boolean ok = error == null && result.statusCode() == 200;
+            if (ok && "LOGIN".equals(action)) {
+                openedSessions.add(token);
+            }
+            // После DRAIN_TIMEOUT запрос уже учтён в awaitCompletion
+            if (outstanding.remove(sequence) == null) {
+                return;
+            }
+            latency.record(done - intended);
+            long dispatched = dispatchedAt.get();
+            if (dispatched != 0) {
+                serviceTime.record(done - dispatched);
+            }
+            if (!ok) {
+                errors.increment();
+            }
+            completed.increment();
+        });
+    }
+
+    // Паркуется до запланированного момента; parkNanos может вернуться раньше, поэтому в цикле
+    private static long waitUntil(long intended) throws InterruptedException {
+        long now = System.nanoTime();
+        while (now < intended) {
+            LockSupport.parkNanos(intended - now);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            now = System.nanoTime();
+        }
+        return now;
+    }
+
+    private List<String> openSessions(AsyncApiClient client, TokenSequencer tokens) {
+        List<String> candidates = new ArrayList<>(sessions);
+        List<CompletableFuture<ApiResponse>> logins = new ArrayList<>(sessions);
+        for (int i = 0; i < sessions; i++) {
+            String token = tokens.next();
+            candidates.add(token);
+            logins.add(client.sendPost(token, "LOGIN", apiKey));
+        }
+        List<String> pool = new ArrayList<>(sessions);
+        for (int i = 0; i < sessions; i++) {
+            ApiResponse response = logins.get(i).exceptionally(e -> null).join();
+            if (response != null && response.statusCode() == 200) {
+                pool.add(candidates.get(i));
+                openedSessions.add(candidates.get(i));
+            }
+        }
+        if (pool.isEmpty()) {
+            throw new IllegalStateException("Не удалось открыть ни одной сессии для ACTION из " + sessions);
+        }
+        return pool;
+    }
+
+    /**
+     * Ждёт ответов не дольше DRAIN_TIMEOUT. Незавершённые к этому моменту запросы записываются
+     * в задержку значением «от плана до окончания ожидания»: иначе самые медленные запросы
+     * пропали бы из p99 и max. Возвращает их число.
+     */
+    private long awaitCompletion(long scheduled) throws InterruptedException {
+        long deadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (completed.sum() < scheduled && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        long now = System.nanoTime();
+        long unfinished = 0;
+        for (Long sequence : List.copyOf(outstanding.keySet())) {
+            Long intended = outstanding.remove(sequence);
+            if (intended != null) {
+                latency.record(now - intended);
+                unfinished++;
+            }
+        }
+        return unfinished;
+    }
+
+    // LOGOUT идёт через клиент прогона: на те же экземпляры приложения и с тем же ключом, что и LOGIN
+    private void releaseSessions(AsyncApiClient client) {
+        if (openedSessions.isEmpty()) {
+            return;
+        }
+        SessionCleanupService cleanup = new SessionCleanupService(client, Config.CLEANUP_MAX_ATTEMPTS,
+                SessionCleanupService.DEFAULT_RETRY_DELAY, apiKey);
+        CleanupReport report = cleanup.logoutAll(List.copyOf(openedSessions));
+        System.out.println(report);
+    }
+
+    /**
+     * Запуск из командной строки, параметры передаются системными свойствами:
+     * load.rate, load.duration.sec, load.action (ACTION или LOGIN), load.sessions,
+     * load.max.in.flight, load.poisson, load.seed
+     */
+    public static void main(String[] args) throws InterruptedException {
+        OpenModelRunner runner = new OpenModelRunner()
+                .rate(Double.parseDouble(System.getProperty("load.rate", "100")))
+                .duration(Duration.ofSeconds(Integer.getInteger("load.duration.sec", 10)))
+                .action(System.getProperty("load.action", "ACTION"))
+                .sessions(Integer.getInteger("load.sessions", 100))
+                .maxInFlight(Integer.getInteger("load.max.in.flight", 1000))
+                .poisson(Boolean.getBoolean("load.poisson"));
+        Long seed = Long.getLong("load.seed");
+        if (seed != null) {
+            runner.seed(seed);
+        }
+        System.out.println(runner.run().format());
+    }
+}
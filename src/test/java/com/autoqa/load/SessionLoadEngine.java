@@ -0,0 +1,296 @@
+package com.autoqa.load;
+
+import com.autoqa.base.Config;
+import com.autoqa.base.MockBackend;
+import com.autoqa.base.StubRegistry;
+import com.autoqa.base.WireMockBackend;
+import com.autoqa.scenario.Scenario;
+import com.autoqa.scenario.ScenarioRunner;
+import com.autoqa.scenario.Scenarios;
+import com.autoqa.scenario.StepResult;
+import com.autoqa.scenario.Workload;
+import com.autoqa.utils.ApiClient;
+import com.autoqa.utils.TargetStats;
+import com.autoqa.utils.TestDataGenerator;
+import com.autoqa.utils.TokenSequencer;
+import com.autoqa.utils.TokenStream;
+import com.github.tomakehurst.wiremock.WireMockServer;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Нагрузочный движок: N виртуальных пользователей параллельно выполняют сценарии из Workload
+ * (по умолчанию жизненный цикл сессии LOGIN → ACTION × k → LOGOUT) через ApiClient —
+ * те же сценарии, что проверяются функциональными тестами.
+ * На JVM с виртуальными потоками каждый пользователь получает свой виртуальный поток,
+ * иначе пользователи выполняются в ограниченном пуле платформенных потоков.
+ */
+public class SessionLoadEngine {
+
+    private int users = 10;
+    private int iterations = 1;
+    private Duration duration;
+    private int actionsPerSession = 1;
+    private String apiKey = Config.API_KEY;
+    private int platformThreads = Integer.getInteger("load.platform.threads", 200);
+    private Long tokenSeed;
+    private Workload workload;
+    private MockBackend stubServer;
+
+    private static final List<String> REPORT_ORDER = List.of("LOGIN", "ACTION", "LOGOUT");
+
+    private final Map<String, ActionStats> stats = new ConcurrentHashMap<>();
+    private final LongAdder sessions = new LongAdder();
+
+    /**
+     * Число одновременных виртуальных пользователей
+     */
+    public SessionLoadEngine users(int users) {
+        if (users < 1) {
+            throw new IllegalArgumentException("Число пользователей должно быть больше 0: " + users);
+        }
+        this.users = users;
+        return this;
+    }
+
+    /**
+     * Сколько сессий проходит каждый пользователь (игнорируется, если задана длительность)
+     */
+    public SessionLoadEngine iterations(int iterations) {
+        this.iterations = iterations;
+        return this;
+    }
+
+    /**
+     * Длительность прогона: пользователи повторяют сессии, пока не истечёт время
+     */
+    public SessionLoadEngine duration(Duration duration) {
+        this.duration = duration;
+        return this;
+    }
+
+    /**
+     * Сколько ACTION выполняется между LOGIN и LOGOUT в сценарии по умолчанию (если workload не задан)
+     */
+    public SessionLoadEngine actionsPerSession(int actionsPerSession) {
+        this.actionsPerSession = actionsPerSession;
+        return this;
+    }
+
+    public SessionLoadEngine apiKey(String apiKey) {
+        this.apiKey = apiKey;
+        return this;
+    }
+
+    /**
+     * Переключает движок со случайных уникальных токенов (TokenSequencer) на воспроизводимые:
+     * у каждого пользователя свой TokenStream(seed, номер пользователя), поэтому прогон
+     * с тем же seed повторяет те же токены
+     */
+    public SessionLoadEngine tokenSeed(long tokenSeed) {
+        this.tokenSeed = tokenSeed;
+        return this;
+    }
+
+    /**
+     * Смесь сценариев: каждая сессия пользователя выполняет случайный сценарий с учётом весов
+     */
+    public SessionLoadEngine workload(Workload workload) {
+        this.workload = workload;
+        return this;
+    }
+
+    /**
+     * WireMock для сценариев с состоянием внешнего сервиса (StubState): у каждого пользователя
+     * свой StubRegistry, заглушки удаляются после каждой сессии
+     */
+    public SessionLoadEngine stubServer(WireMockServer stubServer) {
+        return stubServer(new WireMockBackend(stubServer));
+    }
+
+    /**
+     * То же для любого сервера внешнего сервиса, в том числе LightMockServer
+     */
+    public SessionLoadEngine stubServer(MockBackend stubServer) {
+        this.stubServer = stubServer;
+        return this;
+    }
+
+    /**
+     * Размер пула платформенных потоков, если виртуальные потоки недоступны
+     */
+    public SessionLoadEngine platformThreads(int platformThreads) {
+        this.platformThreads = platformThreads;
+        return this;
+    }
+
+    public LoadReport run() throws InterruptedException {
+        Workload effective = workload != null ? workload : Workload.of(Scenarios.sessionLifecycle(actionsPerSession));
+        if (effective.requiresStubs() && stubServer == null) {
+            throw new IllegalStateException("Сценариям нагрузки нужен сервер заглушек: задайте stubServer(...)");
+        }
+        for (String action : REPORT_ORDER) {
+            statsFor(action);
+        }
+
+        ExecutorService executor = newVirtualThreadExecutor();
+        String executorKind = "virtual threads";
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(Math.min(users, platformThreads));
+            executorKind = "platform pool " + Math.min(users, platformThreads);
+        }
+
+        long deadline = duration == null ? Long.MAX_VALUE : System.nanoTime() + duration.toNanos();
+        CountDownLatch done = new CountDownLatch(users);
+        List<TargetStats> targetsAtStart = ApiClient.targets().snapshot();
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < users; i++) {
+                Supplier<String> tokens = tokenSource(i);
+                SplittableRandom random = tokenSeed != null ? new SplittableRandom(tokenSeed + i) : new SplittableRandom();
+                executor.execute(() -> {
+                    try {
+                        runUser(effective, tokens, random, deadline);
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            done.await();
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        List<TargetStats> targets = TargetStats.difference(ApiClient.targets().snapshot(), targetsAtStart);
+        return new LoadReport(users, executorKind, describeTokens(), effective.describe(), sessions.sum(), elapsed,
+                reportStats(), targets);
+    }
+
+    /**
+     * Статистика по действиям во время прогона, для промежуточных отчётов
+     */
+    Map<String, ActionStats> liveStats() {
+        return Collections.unmodifiableMap(stats);
+    }
+
+    private ActionStats statsFor(String action) {
+        return stats.computeIfAbsent(action, ActionStats::new);
+    }
+
+    private List<ActionStats> reportStats() {
+        return ordered(stats);
+    }
+
+    // LOGIN, ACTION, LOGOUT в привычном порядке, прочие действия сценариев — после них
+    static List<ActionStats> ordered(Map<String, ActionStats> stats) {
+        List<ActionStats> ordered = new ArrayList<>();
+        for (String action : REPORT_ORDER) {
+            if (stats.containsKey(action)) {
+                ordered.add(stats.get(action));
+            }
+        }
+        new TreeMap<>(stats).forEach((action, actionStats) -> {
+            if (!REPORT_ORDER.contains(action)) {
+                ordered.add(actionStats);
+            }
+        });
+        return ordered;
+    }
+
+    private Supplier<String> tokenSource(int user) {
+        if (tokenSeed != null) {
+            TokenStream stream = TestDataGenerator.stream(tokenSeed, user);
+            return stream::next;
+        }
+        // Уникальные токены исключают 409 на LOGIN из-за случайных коллизий
+        TokenSequencer sequencer = TokenSequencer.newWorker();
+        return sequencer::next;
+    }
+
+    private String describeTokens() {
+        return tokenSeed != null ? "seed " + tokenSeed : "уникальные, прогон " + TokenSequencer.RUN_ID;
+    }
+
+    private void runUser(Workload workload, Supplier<String> tokens, SplittableRandom random, long deadline) {
+        StubRegistry stubs = stubServer != null ? new StubRegistry(stubServer) : null;
+        if (duration != null) {
+            while (System.nanoTime() < deadline) {
+                runSession(workload.pick(random), tokens.get(), stubs);
+            }
+        } else {
+            for (int i = 0; i < iterations; i++) {
+                runSession(workload.pick(random), tokens.get(), stubs);
+            }
+        }
+    }
+
+    private void runSession(Scenario scenario, String token, StubRegistry stubs) {
+        try {
+            // Неожиданный ответ учитывается как ошибка шага, прогон продолжается
+            ScenarioRunner.execute(scenario, token, apiKey, stubs, this::record);
+        } finally {
+            if (stubs != null) {
+                stubs.clear();
+            }
+        }
+        sessions.increment();
+    }
+
+    private void record(StepResult result) {
+        statsFor(result.step().action()).record(result.latencyNanos(), result.passed());
+    }
+
+    /**
+     * Executors.newVirtualThreadPerTaskExecutor() через reflection: проект собирается под Java 17,
+     * а на Java 21+ движок автоматически переходит на виртуальные потоки.
+     */
+    static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Запуск из командной строки, параметры передаются системными свойствами:
+     * load.users, load.iterations, load.duration.sec, load.actions, load.token.seed,
+     * load.workload (например, REPEATED_ACTION:3,ACTION_AFTER_LOGOUT:1)
+     */
+    public static void main(String[] args) throws InterruptedException {
+        SessionLoadEngine engine = new SessionLoadEngine()
+                .users(Integer.getInteger("load.users", 10))
+                .iterations(Integer.getInteger("load.iterations", 1))
+                .actionsPerSession(Integer.getInteger("load.actions", 1));
+        Long tokenSeed = Long.getLong("load.token.seed");
+        if (tokenSeed != null) {
+            engine.tokenSeed(tokenSeed);
+        }
+        String workload = System.getProperty("load.workload");
+        if (workload != null) {
+            engine.workload(Scenarios.parseWorkload(workload));
+        }
+        Integer durationSec = Integer.getInteger("load.duration.sec");
+        if (durationSec != null) {
+            engine.duration(Duration.ofSeconds(durationSec));
+        }
+        System.out.println(engine.run().format());
+    }
+}
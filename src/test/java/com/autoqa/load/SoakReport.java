@@ -0,0 +1,42 @@
+package com.autoqa.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Итог длительного прогона. Поокенные данные не хранятся в памяти — они записаны в windowsFile
+ * и histogramsFile; здесь только сводка для консоли.
+ */
+public record SoakReport(int users, Duration elapsed, int windows, long requests, long errors,
+                         SoakWindow baseline, SoakWindow last, int driftWindows, int firstDriftWindow,
+                         Path windowsFile, Path histogramsFile) {
+
+    public boolean drifted() {
+        return driftWindows > 0;
+    }
+
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Длительный прогон: %d пользователей, %.0f с, окон %d, запросов %d, ошибок %d%n",
+                users, elapsed.toNanos() / 1e9, windows, requests, errors));
+        if (baseline != null && last != null) {
+            sb.append(String.format("Базовые окна:    %.1f запросов/с, p99 %.2f ms%n",
+                    baseline.throughput(), baseline.latency().percentileMillis(99)));
+            sb.append(String.format("Последние окна:  %.1f запросов/с, p99 %.2f ms, открытых сессий %d%n",
+                    last.throughput(), last.latency().percentileMillis(99), last.openSessions()));
+        }
+        if (drifted()) {
+            sb.append(String.format("ДЕГРАДАЦИЯ: окон с признаками %d, первое — окно %d%n", driftWindows, firstDriftWindow));
+        } else {
+            sb.append("Деградации не обнаружено").append(System.lineSeparator());
+        }
+        sb.append("Окна: ").append(windowsFile).append(System.lineSeparator());
+        sb.append("Гистограммы: ").append(histogramsFile).append(System.lineSeparator());
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return format();
+    }
+}
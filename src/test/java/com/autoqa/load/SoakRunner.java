@@ -0,0 +1,326 @@
+package com.autoqa.load;
+
+import com.autoqa.base.Config;
+import com.autoqa.metrics.HistogramSnapshot;
+import com.autoqa.metrics.LatencyHistogram;
+import com.autoqa.scenario.Scenario;
+import com.autoqa.scenario.ScenarioRunner;
+import com.autoqa.scenario.Scenarios;
+import com.autoqa.scenario.StepResult;
+import com.autoqa.utils.SessionLeaseTracker;
+import com.autoqa.utils.TokenSequencer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Длительный прогон: пользователи по кругу выполняют LOGIN → ACTION × k → LOGOUT через ApiClient,
+ * результаты собираются по временным окнам. Каждое окно сразу записывается на диск
+ * (сводка в CSV и гистограмма задержек), в памяти остаются только базовые и несколько последних окон,
+ * поэтому память нагрузочной JVM не растёт с длительностью прогона.
+ *
+ * Первые окна после прогрева образуют базу; последние окна сравниваются с ней, и окно помечается
+ * деградацией, если p99 вырос, пропускная способность упала или открытых сессий больше, чем пользователей.
+ */
+public class SoakRunner {
+
+    private int users = 10;
+    private Duration duration = Duration.ofHours(1);
+    private Duration window = Duration.ofMinutes(1);
+    private int actionsPerSession = 1;
+    private int warmupWindows = 1;
+    private int baselineWindows = 3;
+    private double p99Tolerance = 0.5;
+    private double throughputTolerance = 0.2;
+    private Path directory = Path.of("target", "soak");
+    private String apiKey = Config.API_KEY;
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder sessions = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private volatile boolean stopped;
+
+    public SoakRunner users(int users) {
+        this.users = users;
+        return this;
+    }
+
+    public SoakRunner duration(Duration duration) {
+        this.duration = duration;
+        return this;
+    }
+
+    /**
+     * Длительность окна, по которому считаются пропускная способность и перцентили
+     */
+    public SoakRunner window(Duration window) {
+        this.window = window;
+        return this;
+    }
+
+    public SoakRunner actionsPerSession(int actionsPerSession) {
+        this.actionsPerSession = actionsPerSession;
+        return this;
+    }
+
+    /**
+     * Сколько первых окон не учитывается в базе (прогрев JIT и пулов соединений)
+     */
+    public SoakRunner warmupWindows(int warmupWindows) {
+        this.warmupWindows = warmupWindows;
+        return this;
+    }
+
+    /**
+     * Сколько окон после прогрева образуют базу; столько же последних окон сравнивается с ней
+     */
+    public SoakRunner baselineWindows(int baselineWindows) {
+        if (baselineWindows < 1) {
+            throw new IllegalArgumentException("baselineWindows должен быть больше 0: " + baselineWindows);
+        }
+        this.baselineWindows = baselineWindows;
+        return this;
+    }
+
+    /**
+     * Допустимый рост p99 относительно базы (0.5 — на 50%)
+     */
+    public SoakRunner p99Tolerance(double p99Tolerance) {
+        this.p99Tolerance = p99Tolerance;
+        return this;
+    }
+
+    /**
+     * Допустимое падение пропускной способности относительно базы (0.2 — на 20%)
+     */
+    public SoakRunner throughputTolerance(double throughputTolerance) {
+        this.throughputTolerance = throughputTolerance;
+        return this;
+    }
+
+    /**
+     * Каталог для файлов прогона, по умолчанию target/soak
+     */
+    public SoakRunner directory(Path directory) {
+        this.directory = directory;
+        return this;
+    }
+
+    public SoakRunner apiKey(String apiKey) {
+        this.apiKey = apiKey;
+        return this;
+    }
+
+    public SoakReport run() throws InterruptedException, IOException {
+        Files.createDirectories(directory);
+        String prefix = "soak-" + TokenSequencer.RUN_ID;
+        Path windowsFile = directory.resolve(prefix + "-windows.csv");
+        Path histogramsFile = directory.resolve(prefix + "-histograms.txt");
+        Scenario scenario = Scenarios.sessionLifecycle(actionsPerSession);
+
+        ExecutorService executor = SessionLoadEngine.newVirtualThreadExecutor();
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(users);
+        }
+        try (BufferedWriter windows = Files.newBufferedWriter(windowsFile, StandardCharsets.UTF_8);
+             BufferedWriter histograms = Files.newBufferedWriter(histogramsFile, StandardCharsets.UTF_8)) {
+            windows.write(SoakWindow.CSV_HEADER);
+            windows.newLine();
+            windows.flush();
+            for (int i = 0; i < users; i++) {
+                TokenSequencer tokens = TokenSequencer.newWorker();
+                executor.execute(() -> runUser(scenario, tokens));
+            }
+            return collectWindows(windows, histograms, windowsFile, histogramsFile);
+        } finally {
+            stopped = true;
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    private void runUser(Scenario scenario, TokenSequencer tokens) {
+        while (!stopped) {
+            // Неожиданный ответ учитывается как ошибка, прогон продолжается
+            ScenarioRunner.execute(scenario, tokens.next(), apiKey, null, this::record);
+            sessions.increment();
+        }
+    }
+
+    private void record(StepResult result) {
+        latency.record(result.latencyNanos());
+        if (!result.passed()) {
+            errors.increment();
+        }
+    }
+
+    private SoakReport collectWindows(BufferedWriter windows, BufferedWriter histograms,
+                                      Path windowsFile, Path histogramsFile) throws InterruptedException {
+        long start = System.nanoTime();
+        long windowCount = Math.max(1, (duration.toNanos() + window.toNanos() - 1) / window.toNanos());
+        HistogramSnapshot previousLatency = latency.snapshot();
+        long previousSessions = 0;
+        long previousErrors = 0;
+        long windowStart = start;
+
+        List<SoakWindow> baselineParts = new ArrayList<>(baselineWindows);
+        SoakWindow baseline = null;
+        Deque<SoakWindow> recent = new ArrayDeque<>(baselineWindows + 1);
+        long totalRequests = 0;
+        int driftWindows = 0;
+        int firstDrift = -1;
+
+        for (int index = 0; index < windowCount; index++) {
+            long windowEnd = start + (index + 1) * window.toNanos();
+            TimeUnit.NANOSECONDS.sleep(Math.max(0, windowEnd - System.nanoTime()));
+            long now = System.nanoTime();
+
+            HistogramSnapshot currentLatency = latency.snapshot();
+            long currentSessions = sessions.sum();
+            long currentErrors = errors.sum();
+            SoakWindow measured = new SoakWindow(index, Duration.ofNanos(windowStart - start),
+                    Duration.ofNanos(now - windowStart), currentSessions - previousSessions,
+                    currentErrors - previousErrors, currentLatency.minus(previousLatency),
+                    SessionLeaseTracker.outstanding(), heapUsed(), Set.of());
+            previousLatency = currentLatency;
+            previousSessions = currentSessions;
+            previousErrors = currentErrors;
+            windowStart = now;
+
+            recent.addLast(measured);
+            if (recent.size() > baselineWindows) {
+                recent.removeFirst();
+            }
+            Set<SoakWindow.Drift> drift = baseline != null
+                    ? detectDrift(baseline, combine(recent), measured.openSessions())
+                    : Set.of();
+            SoakWindow completed = new SoakWindow(measured.index(), measured.start(), measured.length(),
+                    measured.sessions(), measured.errors(), measured.latency(), measured.openSessions(),
+                    measured.heapUsedBytes(), drift);
+            if (baseline == null && index >= warmupWindows) {
+                baselineParts.add(completed);
+                if (baselineParts.size() == baselineWindows) {
+                    baseline = combine(baselineParts);
+                    baselineParts = null;
+                }
+            }
+            if (!drift.isEmpty()) {
+                driftWindows++;
+                if (firstDrift < 0) {
+                    firstDrift = index;
+                }
+                System.out.printf("Окно %d: признаки деградации %s%n", index, drift);
+            }
+            totalRequests += completed.requests();
+            spill(windows, histograms, completed);
+        }
+
+        SoakWindow last = recent.isEmpty() ? null : combine(recent);
+        return new SoakReport(users, Duration.ofNanos(System.nanoTime() - start), (int) windowCount, totalRequests,
+                errors.sum(), baseline, last, driftWindows, firstDrift, windowsFile, histogramsFile);
+    }
+
+    private Set<SoakWindow.Drift> detectDrift(SoakWindow baseline, SoakWindow recent, int openSessions) {
+        Set<SoakWindow.Drift> drift = EnumSet.noneOf(SoakWindow.Drift.class);
+        if (recent.latency().percentileNanos(99) > baseline.latency().percentileNanos(99) * (1 + p99Tolerance)) {
+            drift.add(SoakWindow.Drift.P99_RISE);
+        }
+        if (recent.throughput() < baseline.throughput() * (1 - throughputTolerance)) {
+            drift.add(SoakWindow.Drift.THROUGHPUT_DROP);
+        }
+        // У каждого пользователя в любой момент открыта не больше чем одна сессия
+        if (openSessions > users) {
+            drift.add(SoakWindow.Drift.SESSION_LEAK);
+        }
+        return drift;
+    }
+
+    // Несколько подряд идущих окон как одно: сглаживает шум отдельного окна
+    private static SoakWindow combine(Iterable<SoakWindow> parts) {
+        SoakWindow first = null;
+        SoakWindow last = null;
+        Duration length = Duration.ZERO;
+        long sessions = 0;
+        long errors = 0;
+        HistogramSnapshot latency = HistogramSnapshot.empty();
+        for (SoakWindow part : parts) {
+            if (first == null) {
+                first = part;
+            }
+            last = part;
+            length = length.plus(part.length());
+            sessions += part.sessions();
+            errors += part.errors();
+            latency = latency.merge(part.latency());
+        }
+        return new SoakWindow(first.index(), first.start(), length, sessions, errors, latency,
+                last.openSessions(), last.heapUsedBytes(), Set.of());
+    }
+
+    /**
+     * Строка окна в CSV и гистограмма окна в разреженном виде:
+     * "номер_окна сумма_нс корзина:счётчик ...", восстанавливается через HistogramSnapshot.of
+     */
+    private static void spill(BufferedWriter windows, BufferedWriter histograms, SoakWindow window) {
+        try {
+            windows.write(window.csvLine());
+            windows.newLine();
+            windows.flush();
+
+            StringBuilder line = new StringBuilder(256);
+            line.append(window.index()).append(' ').append(window.latency().totalNanos());
+            long[] counts = window.latency().bucketCounts();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {
+                    line.append(' ').append(i).append(':').append(counts[i]);
+                }
+            }
+            histograms.write(line.toString());
+            histograms.newLine();
+            histograms.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось записать окно " + window.index(), e);
+        }
+    }
+
+    private static long heapUsed() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Запуск из командной строки, параметры передаются системными свойствами:
+     * soak.users, soak.duration.sec, soak.window.sec, soak.actions, soak.warmup.windows,
+     * soak.baseline.windows, soak.p99.tolerance, soak.throughput.tolerance, soak.dir
+     */
+    public static void main(String[] args) throws InterruptedException, IOException {
+        SoakRunner runner = new SoakRunner()
+                .users(Integer.getInteger("soak.users", 10))
+                .duration(Duration.ofSeconds(Integer.getInteger("soak.duration.sec", 3600)))
+                .window(Duration.ofSeconds(Integer.getInteger("soak.window.sec", 60)))
+                .actionsPerSession(Integer.getInteger("soak.actions", 1))
+                .warmupWindows(Integer.getInteger("soak.warmup.windows", 1))
+                .baselineWindows(Integer.getInteger("soak.baseline.windows", 3))
+                .p99Tolerance(Double.parseDouble(System.getProperty("soak.p99.tolerance", "0.5")))
+                .throughputTolerance(Double.parseDouble(System.getProperty("soak.throughput.tolerance", "0.2")))
+                .directory(Path.of(System.getProperty("soak.dir", "target/soak")));
+        SoakReport report = runner.run();
+        System.out.println(report.format());
+        System.exit(report.drifted() ? 1 : 0);
+    }
+}
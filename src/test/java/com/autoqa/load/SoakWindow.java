@@ -0,0 +1,48 @@
+package com.autoqa.load;
+
+import com.autoqa.metrics.HistogramSnapshot;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Итоги одного временного окна длительного прогона
+ * @param index номер окна с нуля
+ * @param start смещение начала окна от старта прогона
+ * @param length длительность окна
+ * @param sessions сколько сессий завершено в окне
+ * @param errors сколько запросов завершились неожиданным ответом
+ * @param latency задержки всех запросов окна
+ * @param openSessions сколько сессий числится открытыми в конце окна (SessionLeaseTracker)
+ * @param heapUsedBytes занятая куча нагрузочной JVM в конце окна
+ * @param drift признаки деградации, найденные в окне (пусто, если деградации нет)
+ */
+public record SoakWindow(int index, Duration start, Duration length, long sessions, long errors,
+                         HistogramSnapshot latency, int openSessions, long heapUsedBytes, Set<Drift> drift) {
+
+    public static final String CSV_HEADER =
+            "window,start_sec,requests,throughput_per_sec,sessions,errors,p50_ms,p99_ms,max_ms,open_sessions,heap_mb,drift";
+
+    /**
+     * Признак деградации относительно базовых окон
+     */
+    public enum Drift {
+        P99_RISE, THROUGHPUT_DROP, SESSION_LEAK
+    }
+
+    public long requests() {
+        return latency.count();
+    }
+
+    public double throughput() {
+        return length.isZero() ? 0 : requests() * 1_000_000_000.0 / length.toNanos();
+    }
+
+    public String csvLine() {
+        return String.format(Locale.ROOT, "%d,%d,%d,%.1f,%d,%d,%.2f,%.2f,%.2f,%d,%.1f,%s",
+                index, start.toSeconds(), requests(), throughput(), sessions, errors,
+                latency.percentileMillis(50), latency.percentileMillis(99), latency.maxMillis(),
+                openSessions, heapUsedBytes / (1024.0 * 1024.0), String.join("|", drift.stream().map(Enum::name).sorted().toList()));
+    }
+}
@@ -0,0 +1,127 @@
+package com.autoqa.load;
+
+import com.autoqa.metrics.HistogramSnapshot;
+import com.autoqa.utils.TargetStats;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Итог воспроизведения журнала трафика: задержки записи и повтора по действиям и расхождения ответов.
+ * Задержка повтора считается от запланированного момента отправки, как в OpenModelReport.
+ */
+public class TrafficReplayReport {
+
+    private final double speed;
+    private final long scheduled;
+    private final long completed;
+    private final long deferred;
+    private final long lateSends;
+    private final Duration recordedSpan;
+    private final Duration elapsed;
+    private final List<ActionStats> recorded;
+    private final List<ActionStats> replayed;
+    private final Map<String, Long> bodyMismatches;
+    private final List<String> mismatchSamples;
+    private final HistogramSnapshot schedulerLag;
+    private final List<TargetStats> targets;
+
+    public TrafficReplayReport(double speed, long scheduled, long completed, long deferred, long lateSends,
+                               Duration recordedSpan, Duration elapsed, List<ActionStats> recorded,
+                               List<ActionStats> replayed, Map<String, Long> bodyMismatches,
+                               List<String> mismatchSamples, HistogramSnapshot schedulerLag,
+                               List<TargetStats> targets) {
+        this.speed = speed;
+        this.scheduled = scheduled;
+        this.completed = completed;
+        this.deferred = deferred;
+        this.lateSends = lateSends;
+        this.recordedSpan = recordedSpan;
+        this.elapsed = elapsed;
+        this.recorded = List.copyOf(recorded);
+        this.replayed = List.copyOf(replayed);
+        this.bodyMismatches = Map.copyOf(bodyMismatches);
+        this.mismatchSamples = List.copyOf(mismatchSamples);
+        this.schedulerLag = schedulerLag;
+        this.targets = List.copyOf(targets);
+    }
+
+    public long scheduled() {
+        return scheduled;
+    }
+
+    public long completed() {
+        return completed;
+    }
+
+    /**
+     * Сколько запросов ждали ответа на предыдущий запрос того же токена, чтобы не нарушить порядок сессии
+     */
+    public long deferred() {
+        return deferred;
+    }
+
+    /**
+     * Статистика по действиям при повторе; errors — ответы с кодом, отличным от записанного
+     */
+    public List<ActionStats> replayed() {
+        return replayed;
+    }
+
+    public List<ActionStats> recorded() {
+        return recorded;
+    }
+
+    public long statusMismatches() {
+        return replayed.stream().mapToLong(ActionStats::errors).sum();
+    }
+
+    /**
+     * Ответы с тем же кодом, но другим телом
+     */
+    public long bodyMismatches() {
+        return bodyMismatches.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public HistogramSnapshot schedulerLag() {
+        return schedulerLag;
+    }
+
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Повтор журнала: скорость %s, запросов %d, завершено %d, ждали предыдущего ответа токена: %d%n",
+                Double.isInfinite(speed) ? "максимальная" : String.format("%.2f×", speed),
+                scheduled, completed, deferred));
+        sb.append(String.format("Длительность записи: %.3f с, повтора: %.3f с, отправлено с опозданием > 1 мс: %d%n",
+                recordedSpan.toNanos() / 1e9, elapsed.toNanos() / 1e9, lateSends));
+        sb.append(String.format("%-10s %8s %12s %12s %12s %12s %10s %10s%n", "action", "count",
+                "rec p50,ms", "rec p99,ms", "p50,ms", "p99,ms", "status≠", "body≠"));
+        for (ActionStats stats : replayed) {
+            ActionStats before = recorded.stream()
+                    .filter(r -> r.action().equals(stats.action()))
+                    .findFirst()
+                    .orElse(new ActionStats(stats.action()));
+            HistogramSnapshot was = before.latency();
+            HistogramSnapshot now = stats.latency();
+            sb.append(String.format("%-10s %8d %12.2f %12.2f %12.2f %12.2f %10d %10d%n", stats.action(), stats.count(),
+                    was.percentileMillis(50), was.percentileMillis(99), now.percentileMillis(50),
+                    now.percentileMillis(99), stats.errors(), bodyMismatches.getOrDefault(stats.action(), 0L)));
+        }
+        if (!mismatchSamples.isEmpty()) {
+            sb.append("Примеры расхождений:").append(System.lineSeparator());
+            for (String sample : mismatchSamples) {
+                sb.append("  ").append(sample).append(System.lineSeparator());
+            }
+        }
+        if (targets.size() > 1) {
+            sb.append(TargetStats.format(targets));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return format();
+    }
+}
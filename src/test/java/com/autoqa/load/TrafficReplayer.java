@@ -0,0 +1,279 @@
+package com.autoqa.load;
+
+import com.autoqa.base.Config;
+import com.autoqa.metrics.LatencyHistogram;
+import com.autoqa.metrics.LatencyRecorder;
+import com.autoqa.utils.ApiResponse;
+import com.autoqa.utils.AsyncApiClient;
+import com.autoqa.utils.CleanupReport;
+import com.autoqa.utils.SessionCleanupService;
+import com.autoqa.utils.TargetSet;
+import com.autoqa.utils.TargetStats;
+import com.autoqa.utils.TokenSequencer;
+import com.autoqa.utils.TrafficEntry;
+import com.autoqa.utils.TrafficLog;
+import com.autoqa.utils.TrafficRecorder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Pattern;
+
+/**
+ * Повтор журнала TrafficRecorder против /endpoint: те же запросы в том же порядке и с теми же
+ * интервалами между отправками, делёнными на speed. Ответы сравниваются с записанными по коду
+ * и хешу тела, поэтому две сборки приложения можно сравнить на одинаковом трафике.
+ *
+ * Запросы одного токена не обгоняют друг друга: если при ускорении следующий запрос сессии
+ * наступает раньше ответа на предыдущий, он отправляется сразу после этого ответа.
+ */
+public class TrafficReplayer {
+
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+    private static final int MAX_MISMATCH_SAMPLES = 20;
+    private static final Pattern VALID_TOKEN = Pattern.compile("[0-9A-Z]{" + Config.TOKEN_LENGTH + "}");
+
+    private final TrafficLog log;
+    private double speed = 1;
+    private int maxInFlight = 1000;
+    private boolean freshTokens = true;
+    private TargetSet targets = TargetSet.defaultTargets();
+
+    private final Map<String, ActionStats> recorded = new HashMap<>();
+    private final Map<String, ActionStats> replayed = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> bodyMismatches = new ConcurrentHashMap<>();
+    private final Queue<String> mismatchSamples = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger sampleCount = new AtomicInteger();
+    private final LatencyHistogram schedulerLag = new LatencyHistogram();
+    private final LongAdder completed = new LongAdder();
+    // Открытые повтором сессии: токен → ключ API, с которым прошёл LOGIN
+    private final Map<String, String> openSessions = new ConcurrentHashMap<>();
+
+    public TrafficReplayer(TrafficLog log) {
+        this.log = log;
+    }
+
+    /**
+     * Во сколько раз быстрее записи воспроизводить трафик; Double.POSITIVE_INFINITY — без пауз
+     */
+    public TrafficReplayer speed(double speed) {
+        if (!(speed > 0)) {
+            throw new IllegalArgumentException("Скорость должна быть больше 0: " + speed);
+        }
+        this.speed = speed;
+        return this;
+    }
+
+    /**
+     * Без пауз между запросами: сохраняются только порядок отправки и порядок внутри сессии
+     */
+    public TrafficReplayer asFastAsPossible() {
+        return speed(Double.POSITIVE_INFINITY);
+    }
+
+    public TrafficReplayer maxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+        return this;
+    }
+
+    /**
+     * Заменять корректные токены записи новыми уникальными (по умолчанию), чтобы повтор не пересекался
+     * с сессиями, оставшимися от записи или прошлого повтора. Некорректные токены негативных
+     * проверок передаются как есть
+     */
+    public TrafficReplayer freshTokens(boolean freshTokens) {
+        this.freshTokens = freshTokens;
+        return this;
+    }
+
+    public TrafficReplayer targets(TargetSet targets) {
+        this.targets = targets;
+        return this;
+    }
+
+    public TrafficReplayReport run() throws InterruptedException {
+        List<TrafficEntry> entries = log.entries();
+        for (TrafficEntry entry : entries) {
+            recorded.computeIfAbsent(actionName(entry), ActionStats::new)
+                    .record(entry.latencyNanos(), entry.status() == 200);
+        }
+        AsyncApiClient client = AsyncApiClient.create(targets, maxInFlight);
+        TokenSequencer tokens = TokenSequencer.newWorker();
+        Map<String, String> tokenMapping = new HashMap<>();
+        // Последний запрос каждого токена: следующий запрос сессии ждёт его завершения
+        Map<String, CompletableFuture<Void>> lastByToken = new HashMap<>();
+
+        List<TargetStats> targetsAtStart = targets.snapshot();
+        long deferred = 0;
+        long lateSends = 0;
+        long first = entries.isEmpty() ? 0 : entries.get(0).offsetNanos();
+        long start = System.nanoTime();
+        try {
+            for (TrafficEntry entry : entries) {
+                long intended;
+                if (Double.isInfinite(speed)) {
+                    // Без расписания опоздания нет: задержка считается от фактической отправки
+                    intended = System.nanoTime();
+                } else {
+                    intended = start + (long) ((entry.offsetNanos() - first) / speed);
+                    long lag = waitUntil(intended) - intended;
+                    schedulerLag.record(lag);
+                    if (lag > OpenModelReport.BEHIND_THRESHOLD_NANOS) {
+                        lateSends++;
+                    }
+                }
+
+                String token = replayToken(entry.token(), tokens, tokenMapping);
+                if (token == null) {
+                    send(client, entry, null, intended);
+                    continue;
+                }
+                CompletableFuture<Void> previous = lastByToken.get(token);
+                CompletableFuture<Void> sent;
+                if (previous != null && !previous.isDone()) {
+                    deferred++;
+                    // Ждали ответа на предыдущий запрос сессии: задержка считается от момента, когда отправка стала возможной
+                    sent = previous.thenCompose(ignored -> send(client, entry, token, System.nanoTime()));
+                } else {
+                    sent = send(client, entry, token, intended);
+                }
+                lastByToken.put(token, sent);
+            }
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+            awaitCompletion(entries.size());
+            Map<String, Long> bodyDiffs = new HashMap<>();
+            bodyMismatches.forEach((action, count) -> bodyDiffs.put(action, count.sum()));
+            return new TrafficReplayReport(speed, entries.size(), completed.sum(), deferred, lateSends,
+                    Duration.ofNanos(log.spanNanos()), elapsed,
+                    SessionLoadEngine.ordered(recorded), SessionLoadEngine.ordered(replayed),
+                    bodyDiffs, List.copyOf(mismatchSamples), schedulerLag.snapshot(),
+                    TargetStats.difference(targets.snapshot(), targetsAtStart));
+        } finally {
+            releaseSessions(client);
+        }
+    }
+
+    private CompletableFuture<Void> send(AsyncApiClient client, TrafficEntry entry, String token, long intended) {
+        CompletableFuture<ApiResponse> response;
+        try {
+            response = client.sendPost(token, entry.action(), entry.apiKey());
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        return response.handle((result, error) -> {
+            long latency = System.nanoTime() - intended;
+            int status = error != null ? LatencyRecorder.NO_RESPONSE : result.statusCode();
+            String action = actionName(entry);
+            boolean sameStatus = status == entry.status();
+            replayed.computeIfAbsent(action, ActionStats::new).record(latency, sameStatus);
+            if (!sameStatus) {
+                sample(String.format("%s %s: код %d, при записи %d", action, token, status, entry.status()));
+            } else if (error == null && TrafficRecorder.bodyHash(result.body()) != entry.bodyHash()) {
+                bodyMismatches.computeIfAbsent(action, key -> new LongAdder()).increment();
+                sample(String.format("%s %s: код %d, тело отличается: %s", action, token, status, result.bodyAsString()));
+            }
+            trackSession(token, entry, status);
+            completed.increment();
+            return null;
+        });
+    }
+
+    // Токен для повтора: корректные токены записи последовательно заменяются новыми
+    private String replayToken(String recordedToken, TokenSequencer tokens, Map<String, String> mapping) {
+        if (recordedToken == null || !freshTokens || !VALID_TOKEN.matcher(recordedToken).matches()) {
+            return recordedToken;
+        }
+        return mapping.computeIfAbsent(recordedToken, ignored -> tokens.next());
+    }
+
+    private void trackSession(String token, TrafficEntry entry, int status) {
+        if (token == null || status != 200) {
+            return;
+        }
+        if ("LOGIN".equals(entry.action())) {
+            openSessions.put(token, Objects.requireNonNullElse(entry.apiKey(), ""));
+        } else if ("LOGOUT".equals(entry.action())) {
+            openSessions.remove(token);
+        }
+    }
+
+    private void sample(String text) {
+        if (sampleCount.incrementAndGet() <= MAX_MISMATCH_SAMPLES) {
+            mismatchSamples.add(text);
+        }
+    }
+
+    private static String actionName(TrafficEntry entry) {
+        return entry.action() == null ? "(нет)" : entry.action();
+    }
+
+    // Паркуется до запланированного момента; parkNanos может вернуться раньше, поэтому в цикле
+    private static long waitUntil(long intended) throws InterruptedException {
+        long now = System.nanoTime();
+        while (now < intended) {
+            LockSupport.parkNanos(intended - now);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            now = System.nanoTime();
+        }
+        return now;
+    }
+
+    private void awaitCompletion(long scheduled) throws InterruptedException {
+        long deadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (completed.sum() < scheduled && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    // Сессии, открытые повтором и не закрытые им самим (например, запись оборвалась до LOGOUT)
+    // LOGOUT идёт через клиент повтора (те же экземпляры приложения) с ключом, с которым сессия открыта
+    private void releaseSessions(AsyncApiClient client) {
+        Map<String, List<String>> tokensByKey = new HashMap<>();
+        openSessions.forEach((token, apiKey) -> tokensByKey.computeIfAbsent(apiKey, key -> new ArrayList<>()).add(token));
+        tokensByKey.forEach((apiKey, tokens) -> {
+            SessionCleanupService cleanup = new SessionCleanupService(client, Config.CLEANUP_MAX_ATTEMPTS,
+                    SessionCleanupService.DEFAULT_RETRY_DELAY, apiKey);
+            CleanupReport report = cleanup.logoutAll(tokens);
+            System.out.println(report);
+        });
+    }
+
+    /**
+     * Запуск из командной строки, параметры передаются системными свойствами:
+     * replay.file (журнал, записанный с -Dtraffic.record; при повторе с -Dtraffic.record указывайте
+     * другой файл, чтобы сохранить трафик повтора для сравнения), replay.speed (1, 2, 0.5 … или max),
+     * replay.fresh.tokens (по умолчанию true), replay.max.in.flight
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String file = System.getProperty("replay.file");
+        if (file == null) {
+            throw new IllegalArgumentException("Укажите журнал трафика: -Dreplay.file=<путь>");
+        }
+        TrafficReplayer replayer = new TrafficReplayer(TrafficLog.read(Path.of(file)))
+                .maxInFlight(Integer.getInteger("replay.max.in.flight", 1000))
+                .freshTokens(Boolean.parseBoolean(System.getProperty("replay.fresh.tokens", "true")));
+        String speed = System.getProperty("replay.speed", "1");
+        if ("max".equalsIgnoreCase(speed)) {
+            replayer.asFastAsPossible();
+        } else {
+            replayer.speed(Double.parseDouble(speed));
+        }
+        TrafficReplayReport report = replayer.run();
+        System.out.println(report.format());
+        System.exit(report.statusMismatches() + report.bodyMismatches() > 0 ? 1 : 0);
+    }
+}
@@ -0,0 +1,75 @@
+package com.autoqa.metrics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Компактная двоичная форма HistogramSnapshot для передачи между процессами.
+ * Передаются только непустые корзины: разность номеров соседних корзин и счётчик в varint,
+ * поэтому типичная гистограмма интервала занимает десятки байт вместо 9.5 КБ.
+ */
+public final class HistogramCodec {
+
+    private HistogramCodec() {
+    }
+
+    public static void write(HistogramSnapshot snapshot, DataOutput out) throws IOException {
+        long[] counts = snapshot.bucketCounts();
+        int nonZero = 0;
+        for (long count : counts) {
+            if (count != 0) {
+                nonZero++;
+            }
+        }
+        writeVarLong(out, snapshot.totalNanos());
+        writeVarLong(out, nonZero);
+        int previous = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                writeVarLong(out, i - previous);
+                writeVarLong(out, counts[i]);
+                previous = i;
+            }
+        }
+    }
+
+    public static HistogramSnapshot read(DataInput in) throws IOException {
+        long totalNanos = readVarLong(in);
+        long nonZero = readVarLong(in);
+        long[] counts = new long[LatencyHistogram.BUCKET_COUNT];
+        int index = 0;
+        for (long i = 0; i < nonZero; i++) {
+            index += (int) readVarLong(in);
+            if (index >= counts.length) {
+                throw new IOException("Номер корзины вне диапазона: " + index);
+            }
+            counts[index] = readVarLong(in);
+        }
+        return new HistogramSnapshot(counts, totalNanos);
+    }
+
+    // Беззнаковый varint: по 7 бит в байте, старший бит — признак продолжения
+    private static void writeVarLong(DataOutput out, long value) throws IOException {
+        if (value < 0) {
+            throw new IllegalArgumentException("Отрицательное значение: " + value);
+        }
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Некорректный varint");
+    }
+}
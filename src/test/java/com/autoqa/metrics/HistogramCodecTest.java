@@ -0,0 +1,101 @@
+package com.autoqa.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Двоичная форма гистограмм HistogramCodec")
+public class HistogramCodecTest {
+
+    private static byte[] encode(HistogramSnapshot snapshot) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        HistogramCodec.write(snapshot, new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+
+    private static HistogramSnapshot decode(byte[] bytes) throws IOException {
+        return HistogramCodec.read(new DataInputStream(new ByteArrayInputStream(bytes)));
+    }
+
+    @Test
+    @DisplayName("Пустая гистограмма занимает два байта и читается пустой")
+    public void emptyHistogram_shouldRoundTrip() throws IOException {
+        byte[] bytes = encode(HistogramSnapshot.empty());
+
+        assertEquals(2, bytes.length);
+        HistogramSnapshot decoded = decode(bytes);
+        assertEquals(0, decoded.count());
+        assertEquals(0, decoded.totalNanos());
+        assertTrue(Arrays.stream(decoded.bucketCounts()).allMatch(count -> count == 0));
+    }
+
+    @Test
+    @DisplayName("Разреженная гистограмма восстанавливается по корзинам, включая первую и последнюю")
+    public void sparseHistogram_shouldRoundTrip() throws IOException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(0);
+        histogram.record(TimeUnit.MICROSECONDS.toNanos(750));
+        for (int i = 0; i < 1_000; i++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(12));
+        }
+        histogram.record(TimeUnit.SECONDS.toNanos(3));
+        histogram.record(Long.MAX_VALUE / 2);
+        HistogramSnapshot snapshot = histogram.snapshot();
+
+        byte[] bytes = encode(snapshot);
+        HistogramSnapshot decoded = decode(bytes);
+
+        assertTrue(bytes.length < 64, "Передаются только непустые корзины: " + bytes.length + " байт");
+        assertArrayEquals(snapshot.bucketCounts(), decoded.bucketCounts());
+        assertEquals(snapshot.totalNanos(), decoded.totalNanos());
+        assertEquals(snapshot.percentileNanos(99), decoded.percentileNanos(99));
+        assertEquals(snapshot.maxNanos(), decoded.maxNanos());
+    }
+
+    @Test
+    @DisplayName("Несколько гистограмм подряд в одном потоке читаются по очереди")
+    public void consecutiveHistograms_shouldBeReadInOrder() throws IOException {
+        LatencyHistogram first = new LatencyHistogram();
+        first.record(TimeUnit.MILLISECONDS.toNanos(5));
+        LatencyHistogram second = new LatencyHistogram();
+        second.record(TimeUnit.MILLISECONDS.toNanos(500));
+        second.record(TimeUnit.MILLISECONDS.toNanos(501));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        HistogramCodec.write(first.snapshot(), out);
+        HistogramCodec.write(HistogramSnapshot.empty(), out);
+        HistogramCodec.write(second.snapshot(), out);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+
+        assertEquals(1, HistogramCodec.read(in).count());
+        assertEquals(0, HistogramCodec.read(in).count());
+        assertArrayEquals(second.snapshot().bucketCounts(), HistogramCodec.read(in).bucketCounts());
+        assertEquals(0, in.available());
+    }
+
+    @Test
+    @DisplayName("Обрезанные данные и корзина вне диапазона дают ошибку чтения")
+    public void corruptedInput_shouldFail() throws IOException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(20));
+        byte[] bytes = encode(histogram.snapshot());
+
+        assertThrows(EOFException.class, () -> decode(Arrays.copyOf(bytes, bytes.length - 1)));
+        // totalNanos 0, одна корзина с номером 2^14 — больше числа корзин
+        assertThrows(IOException.class, () -> decode(new byte[]{0, 1, (byte) 0x80, (byte) 0x80, 0x01, 1}));
+    }
+}
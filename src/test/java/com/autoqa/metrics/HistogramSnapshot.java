@@ -0,0 +1,149 @@
+package com.autoqa.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Неизменяемый снимок LatencyHistogram: перцентили, объединение и разность снимков
+ */
+public class HistogramSnapshot {
+
+    private static final HistogramSnapshot EMPTY =
+            new HistogramSnapshot(new long[LatencyHistogram.BUCKET_COUNT], 0);
+
+    private final long[] counts;
+    private final long totalNanos;
+    private final long count;
+
+    HistogramSnapshot(long[] counts, long totalNanos) {
+        if (counts.length != LatencyHistogram.BUCKET_COUNT) {
+            throw new IllegalArgumentException("Ожидалось " + LatencyHistogram.BUCKET_COUNT
+                    + " корзин, получено " + counts.length);
+        }
+        this.counts = counts;
+        this.totalNanos = totalNanos;
+        this.count = Arrays.stream(counts).sum();
+    }
+
+    public static HistogramSnapshot empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Восстанавливает снимок из счётчиков корзин (см. bucketCounts)
+     */
+    public static HistogramSnapshot of(long[] bucketCounts, long totalNanos) {
+        return new HistogramSnapshot(bucketCounts.clone(), totalNanos);
+    }
+
+    /**
+     * Копия счётчиков корзин для передачи или сохранения
+     */
+    public long[] bucketCounts() {
+        return counts.clone();
+    }
+
+    long bucketCount(int index) {
+        return counts[index];
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public long totalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * Сумма двух снимков, например гистограмм разных потоков или процессов
+     */
+    public HistogramSnapshot merge(HistogramSnapshot other) {
+        long[] merged = new long[counts.length];
+        for (int i = 0; i < merged.length; i++) {
+            merged[i] = counts[i] + other.counts[i];
+        }
+        return new HistogramSnapshot(merged, totalNanos + other.totalNanos);
+    }
+
+    /**
+     * Значения, записанные после снимка earlier
+     */
+    public HistogramSnapshot minus(HistogramSnapshot earlier) {
+        long[] diff = new long[counts.length];
+        for (int i = 0; i < diff.length; i++) {
+            diff[i] = Math.max(0, counts[i] - earlier.counts[i]);
+        }
+        return new HistogramSnapshot(diff, Math.max(0, totalNanos - earlier.totalNanos));
+    }
+
+    /**
+     * Перцентиль в наносекундах (верхняя граница корзины)
+     * @param percentile от 0 до 100
+     */
+    public long percentileNanos(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return LatencyHistogram.highestValueIn(i);
+            }
+        }
+        return maxNanos();
+    }
+
+    /**
+     * Сколько значений заведомо больше nanos: учитываются только корзины, целиком лежащие выше порога
+     */
+    public long countAbove(long nanos) {
+        long above = 0;
+        for (int i = counts.length - 1; i > 0; i--) {
+            if (LatencyHistogram.highestValueIn(i - 1) < nanos) {
+                break;
+            }
+            above += counts[i];
+        }
+        return above;
+    }
+
+    /**
+     * Нижняя граница первой непустой корзины
+     */
+    public long minNanos() {
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                return i == 0 ? 0 : LatencyHistogram.highestValueIn(i - 1) + 1;
+            }
+        }
+        return 0;
+    }
+
+    public long maxNanos() {
+        for (int i = counts.length - 1; i >= 0; i--) {
+            if (counts[i] != 0) {
+                return LatencyHistogram.highestValueIn(i);
+            }
+        }
+        return 0;
+    }
+
+    public double percentileMillis(double percentile) {
+        return toMillis(percentileNanos(percentile));
+    }
+
+    public double maxMillis() {
+        return toMillis(maxNanos());
+    }
+
+    public double meanMillis() {
+        return count == 0 ? 0 : toMillis(totalNanos) / count;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,79 @@
+package com.autoqa.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Лок-фри гистограмма задержек с фиксированным объёмом памяти (~9.5 КБ).
+ * Шкала лог-линейная: значения до 64 нс хранятся точно, дальше каждая степень двойки
+ * делится на 32 корзины, поэтому относительная ошибка перцентилей не превышает ~3%.
+ * Верхняя граница — 2^41 нс (~36 минут), большие значения попадают в последнюю корзину.
+ */
+public class LatencyHistogram {
+
+    static final int SUB_BUCKET_BITS = 5;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_MAGNITUDE = 40;
+    static final int BUCKET_COUNT = (MAX_MAGNITUDE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalNanos = new LongAdder();
+
+    /**
+     * Фиксирует одно значение; отрицательные значения считаются нулём
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketIndex(value));
+        totalNanos.add(value);
+    }
+
+    /**
+     * Копия текущих значений. Снимок не атомарен относительно параллельной записи:
+     * значения, записанные во время копирования, могут попасть в снимок частично.
+     */
+    public HistogramSnapshot snapshot() {
+        long[] copy = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy[i] = counts.get(i);
+        }
+        return new HistogramSnapshot(copy, totalNanos.sum());
+    }
+
+    /**
+     * Добавляет к гистограмме значения снимка (например, полученного от другого процесса)
+     */
+    public void add(HistogramSnapshot snapshot) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = snapshot.bucketCount(i);
+            if (count != 0) {
+                counts.addAndGet(i, count);
+            }
+        }
+        totalNanos.add(snapshot.totalNanos());
+    }
+
+    static int bucketIndex(long value) {
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        if (magnitude <= SUB_BUCKET_BITS) {
+            return (int) value;
+        }
+        if (magnitude > MAX_MAGNITUDE) {
+            return BUCKET_COUNT - 1;
+        }
+        int shift = magnitude - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    /**
+     * Наибольшее значение, попадающее в корзину
+     */
+    static long highestValueIn(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long lowest = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
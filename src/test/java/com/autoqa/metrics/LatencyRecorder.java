@@ -0,0 +1,144 @@
+package com.autoqa.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Глобальные гистограммы задержек запросов к /endpoint по действию и коду ответа.
+ * Запись не использует блокировок: гистограмма для пары (действие, код) создаётся один раз через CAS,
+ * дальше запись — это два атомарных инкремента.
+ *
+ * Кроме глобальных, запрос попадает в гистограммы области (например, тестового класса), в которой
+ * находится отправивший его поток. Так задержки класса не смешиваются с запросами классов,
+ * выполняющихся параллельно. Асинхронный клиент запоминает область в момент отправки.
+ */
+public class LatencyRecorder {
+
+    public static final String[] ACTIONS = {"LOGIN", "ACTION", "LOGOUT", "OTHER"};
+
+    /**
+     * Код «ответа» для запросов, завершившихся ошибкой соединения
+     */
+    public static final int NO_RESPONSE = 0;
+
+    private static final int MIN_STATUS = 100;
+    private static final int MAX_STATUS = 599;
+    private static final int STATUS_SLOTS = MAX_STATUS - MIN_STATUS + 2;
+
+    private static final Histograms GLOBAL = new Histograms();
+    private static final Map<String, Histograms> SCOPES = new ConcurrentHashMap<>();
+    private static final ThreadLocal<String> CURRENT_SCOPE = new ThreadLocal<>();
+
+    private LatencyRecorder() {
+    }
+
+    /**
+     * Фиксирует задержку одного запроса
+     * @param action значение параметра action (неизвестные и null учитываются как OTHER)
+     * @param status код ответа или NO_RESPONSE
+     */
+    public static void record(String action, int status, long latencyNanos) {
+        record(CURRENT_SCOPE.get(), action, status, latencyNanos);
+    }
+
+    /**
+     * Фиксирует задержку запроса, отправленного в области scope (null — вне областей)
+     */
+    public static void record(String scope, String action, int status, long latencyNanos) {
+        int slot = actionIndex(action) * STATUS_SLOTS + statusIndex(status);
+        GLOBAL.record(slot, latencyNanos);
+        if (scope != null) {
+            // Закрытая область не пересоздаётся: запоздавший ответ в неё уже не попадёт
+            Histograms histograms = SCOPES.get(scope);
+            if (histograms != null) {
+                histograms.record(slot, latencyNanos);
+            }
+        }
+    }
+
+    /**
+     * Снимок всех непустых глобальных гистограмм
+     */
+    public static LatencySnapshot snapshot() {
+        return GLOBAL.snapshot();
+    }
+
+    /**
+     * Создаёт пустые гистограммы области; запросы учитываются в ней, пока область не закрыта
+     */
+    public static void openScope(String scope) {
+        SCOPES.putIfAbsent(scope, new Histograms());
+    }
+
+    /**
+     * Запросы текущего потока учитываются в области scope до exitScope()
+     */
+    public static void enterScope(String scope) {
+        CURRENT_SCOPE.set(scope);
+    }
+
+    public static void exitScope() {
+        CURRENT_SCOPE.remove();
+    }
+
+    /**
+     * Область текущего потока или null
+     */
+    public static String currentScope() {
+        return CURRENT_SCOPE.get();
+    }
+
+    /**
+     * Закрывает область и возвращает снимок её гистограмм (пустой, если области не было)
+     */
+    public static LatencySnapshot closeScope(String scope) {
+        Histograms histograms = SCOPES.remove(scope);
+        return histograms != null ? histograms.snapshot() : new LatencySnapshot(Map.of());
+    }
+
+    private static int actionIndex(String action) {
+        if (action != null) {
+            for (int i = 0; i < ACTIONS.length - 1; i++) {
+                if (ACTIONS[i].equals(action)) {
+                    return i;
+                }
+            }
+        }
+        return ACTIONS.length - 1;
+    }
+
+    private static int statusIndex(int status) {
+        return status >= MIN_STATUS && status <= MAX_STATUS ? status - MIN_STATUS + 1 : 0;
+    }
+
+    /**
+     * Гистограммы по слотам (действие, код), создаются при первом запросе через CAS
+     */
+    private static final class Histograms {
+        private final AtomicReferenceArray<LatencyHistogram> slots = new AtomicReferenceArray<>(ACTIONS.length * STATUS_SLOTS);
+
+        void record(int slot, long latencyNanos) {
+            LatencyHistogram histogram = slots.get(slot);
+            if (histogram == null) {
+                slots.compareAndSet(slot, null, new LatencyHistogram());
+                histogram = slots.get(slot);
+            }
+            histogram.record(latencyNanos);
+        }
+
+        LatencySnapshot snapshot() {
+            Map<LatencySnapshot.Key, HistogramSnapshot> histograms = new TreeMap<>();
+            for (int slot = 0; slot < slots.length(); slot++) {
+                LatencyHistogram histogram = slots.get(slot);
+                if (histogram != null) {
+                    int statusIndex = slot % STATUS_SLOTS;
+                    int status = statusIndex == 0 ? NO_RESPONSE : statusIndex + MIN_STATUS - 1;
+                    histograms.put(new LatencySnapshot.Key(ACTIONS[slot / STATUS_SLOTS], status), histogram.snapshot());
+                }
+            }
+            return new LatencySnapshot(histograms);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.autoqa.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Снимок гистограмм задержек по парам (действие, код ответа)
+ */
+public class LatencySnapshot {
+
+    /**
+     * Действие и код ответа; код LatencyRecorder.NO_RESPONSE означает ошибку соединения
+     */
+    public record Key(String action, int status) implements Comparable<Key> {
+
+        @Override
+        public int compareTo(Key other) {
+            int byAction = Integer.compare(order(action), order(other.action));
+            return byAction != 0 ? byAction : Integer.compare(status, other.status);
+        }
+
+        private static int order(String action) {
+            for (int i = 0; i < LatencyRecorder.ACTIONS.length; i++) {
+                if (LatencyRecorder.ACTIONS[i].equals(action)) {
+                    return i;
+                }
+            }
+            return LatencyRecorder.ACTIONS.length;
+        }
+    }
+
+    private final Map<Key, HistogramSnapshot> histograms;
+
+    public LatencySnapshot(Map<Key, HistogramSnapshot> histograms) {
+        this.histograms = Collections.unmodifiableMap(new TreeMap<>(histograms));
+    }
+
+    public Map<Key, HistogramSnapshot> histograms() {
+        return histograms;
+    }
+
+    public HistogramSnapshot get(String action, int status) {
+        return histograms.getOrDefault(new Key(action, status), HistogramSnapshot.empty());
+    }
+
+    /**
+     * Все коды ответа одного действия в одной гистограмме
+     */
+    public HistogramSnapshot forAction(String action) {
+        HistogramSnapshot total = HistogramSnapshot.empty();
+        for (Map.Entry<Key, HistogramSnapshot> entry : histograms.entrySet()) {
+            if (entry.getKey().action().equals(action)) {
+                total = total.merge(entry.getValue());
+            }
+        }
+        return total;
+    }
+
+    public long count() {
+        return histograms.values().stream().mapToLong(HistogramSnapshot::count).sum();
+    }
+
+    public LatencySnapshot merge(LatencySnapshot other) {
+        Map<Key, HistogramSnapshot> merged = new TreeMap<>(histograms);
+        other.histograms.forEach((key, value) -> merged.merge(key, value, HistogramSnapshot::merge));
+        return new LatencySnapshot(merged);
+    }
+
+    /**
+     * Запросы, выполненные после снимка earlier; пустые гистограммы отбрасываются
+     */
+    public LatencySnapshot minus(LatencySnapshot earlier) {
+        Map<Key, HistogramSnapshot> diff = new TreeMap<>();
+        histograms.forEach((key, value) -> {
+            HistogramSnapshot delta = value.minus(earlier.histograms.getOrDefault(key, HistogramSnapshot.empty()));
+            if (delta.count() > 0) {
+                diff.put(key, delta);
+            }
+        });
+        return new LatencySnapshot(diff);
+    }
+
+    /**
+     * Таблица перцентилей для консоли или вложения в Allure
+     */
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-8s %6s %8s %9s %9s %9s %9s %9s %9s%n",
+                "action", "status", "count", "mean,ms", "p50,ms", "p90,ms", "p99,ms", "p99.9,ms", "max,ms"));
+        histograms.forEach((key, h) -> sb.append(String.format("%-8s %6s %8d %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                key.action(), key.status() == LatencyRecorder.NO_RESPONSE ? "-" : String.valueOf(key.status()),
+                h.count(), h.meanMillis(), h.percentileMillis(50), h.percentileMillis(90),
+                h.percentileMillis(99), h.percentileMillis(99.9), h.maxMillis())));
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return format();
+    }
+}
@@ -0,0 +1,112 @@
+package com.autoqa.metrics;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * База производительности эталонного прогона: перцентили задержек и пропускная способность по действиям.
+ * Хранится в properties-файле, по строке на показатель: ACTION.p99.ms=12.58
+ */
+public class PerfBaseline {
+
+    /**
+     * Показатели одного действия
+     * @param count число запросов в эталонном прогоне
+     * @param throughput запросов в секунду
+     */
+    public record Entry(String action, long count, double p50Millis, double p99Millis, double throughput) {
+    }
+
+    private final Map<String, Entry> entries;
+
+    private PerfBaseline(Map<String, Entry> entries) {
+        this.entries = entries;
+    }
+
+    public static PerfBaseline of(Collection<Entry> entries) {
+        Map<String, Entry> byAction = new TreeMap<>();
+        for (Entry entry : entries) {
+            byAction.put(entry.action(), entry);
+        }
+        return new PerfBaseline(byAction);
+    }
+
+    public static PerfBaseline load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        Map<String, Entry> byAction = new TreeMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (!key.endsWith(".count")) {
+                continue;
+            }
+            String action = key.substring(0, key.length() - ".count".length());
+            try {
+                byAction.put(action, new Entry(action,
+                        Long.parseLong(properties.getProperty(key).trim()),
+                        number(properties, action + ".p50.ms"),
+                        number(properties, action + ".p99.ms"),
+                        number(properties, action + ".throughput")));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Некорректная база " + file + " для " + action, e);
+            }
+        }
+        return new PerfBaseline(byAction);
+    }
+
+    /**
+     * Записывает базу; строки упорядочены по действию, чтобы изменения базы было удобно смотреть в diff
+     */
+    public void store(Path file, String comment) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("# " + comment);
+            writer.newLine();
+            for (Entry entry : entries.values()) {
+                writeLine(writer, entry.action() + ".count", String.valueOf(entry.count()));
+                writeLine(writer, entry.action() + ".p50.ms", format(entry.p50Millis()));
+                writeLine(writer, entry.action() + ".p99.ms", format(entry.p99Millis()));
+                writeLine(writer, entry.action() + ".throughput", format(entry.throughput()));
+            }
+        }
+    }
+
+    public Optional<Entry> get(String action) {
+        return Optional.ofNullable(entries.get(action));
+    }
+
+    public Collection<Entry> entries() {
+        return entries.values();
+    }
+
+    private static double number(Properties properties, String key) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            throw new NumberFormatException("нет значения " + key);
+        }
+        return Double.parseDouble(value.trim());
+    }
+
+    private static void writeLine(BufferedWriter writer, String key, String value) throws IOException {
+        writer.write(key + "=" + value);
+        writer.newLine();
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+}
@@ -0,0 +1,124 @@
+package com.autoqa.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение прогона с базой производительности.
+ *
+ * Перцентиль считается ухудшившимся, только если это статистически значимо: если бы p-й перцентиль
+ * текущего прогона не превышал порог base × (1 + допуск), доля значений выше порога была бы не больше
+ * 1 − p/100. Число таких значений в прогоне проверяется односторонним биномиальным критерием, поэтому
+ * единичные выбросы на небольшой выборке не валят сборку, а устойчивый рост хвоста — валит.
+ * Пропускная способность сравнивается напрямую с допуском на падение.
+ */
+public class RegressionCheck {
+
+    /**
+     * Допуски сравнения
+     * @param p50 допустимый рост медианы (0.25 — на 25%)
+     * @param p99 допустимый рост p99
+     * @param throughput допустимое падение пропускной способности
+     * @param confidence уровень доверия биномиального критерия (0.99)
+     */
+    public record Tolerances(double p50, double p99, double throughput, double confidence) {
+    }
+
+    public enum Verdict {
+        OK, REGRESSION, NOT_ENOUGH_DATA
+    }
+
+    /**
+     * Строка таблицы сравнения
+     * @param limit порог, выше (для задержек) или ниже (для пропускной способности) которого значение — регрессия
+     * @param detail доля значений выше порога и p-value для перцентилей
+     */
+    public record Row(String action, String metric, double baseline, double current, double limit,
+                      Verdict verdict, String detail) {
+    }
+
+    private RegressionCheck() {
+    }
+
+    public static List<Row> compare(PerfBaseline.Entry baseline, HistogramSnapshot latency, double throughput,
+                                    Tolerances tolerances) {
+        List<Row> rows = new ArrayList<>(3);
+        rows.add(percentile(baseline.action(), 50, baseline.p50Millis(), latency, tolerances.p50(), tolerances.confidence()));
+        rows.add(percentile(baseline.action(), 99, baseline.p99Millis(), latency, tolerances.p99(), tolerances.confidence()));
+        double limit = baseline.throughput() * (1 - tolerances.throughput());
+        rows.add(new Row(baseline.action(), "запросов/с", baseline.throughput(), throughput, limit,
+                throughput < limit ? Verdict.REGRESSION : Verdict.OK, ""));
+        return rows;
+    }
+
+    /**
+     * Строка для действия из базы, по которому в прогоне не было ни одного запроса
+     */
+    public static Row missing(PerfBaseline.Entry baseline) {
+        return new Row(baseline.action(), "запросов", baseline.count(), 0, baseline.count(),
+                Verdict.REGRESSION, "нет запросов в прогоне");
+    }
+
+    private static Row percentile(String action, double percentile, double baselineMillis, HistogramSnapshot latency,
+                                  double tolerance, double confidence) {
+        String metric = "p" + (int) percentile + ", ms";
+        double limitMillis = baselineMillis * (1 + tolerance);
+        long n = latency.count();
+        double tailShare = 1 - percentile / 100;
+        double alpha = 1 - confidence;
+        // Даже если все значения выше порога, на такой выборке это не отличить от случайности
+        if (n == 0 || Math.pow(tailShare, n) >= alpha) {
+            return new Row(action, metric, baselineMillis, latency.percentileMillis(percentile), limitMillis,
+                    Verdict.NOT_ENOUGH_DATA, "выборка " + n);
+        }
+        long above = latency.countAbove((long) (limitMillis * TimeUnit.MILLISECONDS.toNanos(1)));
+        double pValue = binomialUpperTail(n, above, tailShare);
+        String detail = String.format("выше порога %d из %d (ожидается ≤ %.1f), p=%.2g",
+                above, n, n * tailShare, pValue);
+        return new Row(action, metric, baselineMillis, latency.percentileMillis(percentile), limitMillis,
+                pValue < alpha ? Verdict.REGRESSION : Verdict.OK, detail);
+    }
+
+    /**
+     * P(X ≥ k) для X ~ Binomial(n, p)
+     */
+    static double binomialUpperTail(long n, long k, double p) {
+        if (k <= 0) {
+            return 1;
+        }
+        if (k > n) {
+            return 0;
+        }
+        // Сумма P(X = i) для i < k; вероятности считаются в логарифмах, чтобы не уйти в 0 на больших n
+        double logP = Math.log(p);
+        double logQ = Math.log1p(-p);
+        double logPmf = n * logQ;
+        double below = 0;
+        for (long i = 0; i < k; i++) {
+            below += Math.exp(logPmf);
+            logPmf += Math.log((double) (n - i) / (i + 1)) + logP - logQ;
+        }
+        return Math.max(0, 1 - below);
+    }
+
+    public static boolean hasRegression(List<Row> rows) {
+        return rows.stream().anyMatch(row -> row.verdict() == Verdict.REGRESSION);
+    }
+
+    /**
+     * Таблица сравнения для отчёта
+     */
+    public static String format(List<Row> rows) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-8s %-11s %10s %10s %8s %10s  %-15s %s%n",
+                "Действие", "Показатель", "База", "Сейчас", "Δ, %", "Порог", "Итог", ""));
+        for (Row row : rows) {
+            double change = row.baseline() == 0 ? 0 : (row.current() / row.baseline() - 1) * 100;
+            sb.append(String.format("%-8s %-11s %10.2f %10.2f %+8.1f %10.2f  %-15s %s%n",
+                    row.action(), row.metric(), row.baseline(), row.current(), change, row.limit(),
+                    row.verdict(), row.detail()));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,134 @@
+package com.autoqa.scenario;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Декларативный сценарий работы с сессией. Одно и то же описание выполняется
+ * как проверка в JUnit (ScenarioRunner.verify) и как нагрузка (Workload в SessionLoadEngine).
+ * <pre>
+ * Scenario.named("ACTION после LOGOUT")
+ *         .step("LOGIN").expectStatus(200)
+ *         .step("LOGOUT").expectStatus(200)
+ *         .step("ACTION").expectStatus(400).expectResult("ERROR")
+ *         .build();
+ * </pre>
+ */
+public class Scenario {
+
+    private final String name;
+    private final List<ScenarioStep> steps;
+
+    private Scenario(String name, List<ScenarioStep> steps) {
+        this.name = name;
+        this.steps = List.copyOf(steps);
+    }
+
+    public static Builder named(String name) {
+        return new Builder(name);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public List<ScenarioStep> steps() {
+        return steps;
+    }
+
+    /**
+     * Нужен ли сценарию StubRegistry для управления внешним сервисом
+     */
+    public boolean requiresStubs() {
+        return steps.stream().anyMatch(step -> step.stub() != null);
+    }
+
+    @Override
+    public String toString() {
+        return name + ": " + steps.stream().map(ScenarioStep::describe).collect(Collectors.joining("; "));
+    }
+
+    public static class Builder {
+
+        private final String name;
+        private final List<ScenarioStep> steps = new ArrayList<>();
+
+        private String action;
+        private Set<Integer> expectedStatuses;
+        private String expectedResult;
+        private StubState stub;
+        private Duration thinkTime;
+
+        private Builder(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Начинает следующий шаг; по умолчанию ожидается код 200 без паузы
+         */
+        public Builder step(String action) {
+            finishStep();
+            this.action = action;
+            this.expectedStatuses = Set.of(200);
+            this.expectedResult = null;
+            this.stub = null;
+            this.thinkTime = Duration.ZERO;
+            return this;
+        }
+
+        /**
+         * Допустимые коды ответа текущего шага
+         */
+        public Builder expectStatus(Integer... statuses) {
+            current().expectedStatuses = Set.copyOf(Arrays.asList(statuses));
+            return this;
+        }
+
+        public Builder expectResult(String result) {
+            current().expectedResult = result;
+            return this;
+        }
+
+        /**
+         * Состояние внешнего сервиса, которое ставится перед текущим шагом
+         */
+        public Builder withStub(StubState stub) {
+            current().stub = stub;
+            return this;
+        }
+
+        /**
+         * Пауза после текущего шага, как у реального пользователя между запросами
+         */
+        public Builder thinkTime(Duration thinkTime) {
+            current().thinkTime = thinkTime;
+            return this;
+        }
+
+        public Scenario build() {
+            finishStep();
+            if (steps.isEmpty()) {
+                throw new IllegalStateException("Сценарий " + name + " не содержит шагов");
+            }
+            return new Scenario(name, steps);
+        }
+
+        private Builder current() {
+            if (action == null) {
+                throw new IllegalStateException("Сначала вызовите step(action)");
+            }
+            return this;
+        }
+
+        private void finishStep() {
+            if (action != null) {
+                steps.add(new ScenarioStep(action, expectedStatuses, expectedResult, stub, thinkTime));
+                action = null;
+            }
+        }
+    }
+}
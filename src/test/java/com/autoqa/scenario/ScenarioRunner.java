@@ -0,0 +1,133 @@
+package com.autoqa.scenario;
+
+import com.autoqa.base.Config;
+import com.autoqa.base.StubRegistry;
+import com.autoqa.metrics.LatencyRecorder;
+import com.autoqa.utils.ApiClient;
+import com.autoqa.utils.Attachments;
+import com.autoqa.utils.ResponseView;
+import com.autoqa.utils.TestDataGenerator;
+import io.qameta.allure.Allure;
+import io.restassured.response.Response;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Выполняет сценарий для одного токена. Выполнение останавливается на первом шаге с неожиданным
+ * результатом; если сессия осталась открытой, в конце отправляется завершающий LOGOUT.
+ */
+public class ScenarioRunner {
+
+    private static final ScenarioStep CLEANUP_LOGOUT =
+            new ScenarioStep("LOGOUT", Set.of(200), null, null, Duration.ZERO);
+
+    /**
+     * Получает результат каждого шага сразу после запроса
+     */
+    @FunctionalInterface
+    public interface StepListener {
+        void onStep(StepResult result);
+    }
+
+    private ScenarioRunner() {
+    }
+
+    /**
+     * @param stubs реестр заглушек для шагов с StubState; может быть null, если сценарию заглушки не нужны
+     * @return true, если все шаги завершились ожидаемым результатом
+     */
+    public static boolean execute(Scenario scenario, String token, String apiKey, StubRegistry stubs,
+                                  StepListener listener) {
+        if (stubs == null && scenario.requiresStubs()) {
+            throw new IllegalStateException("Сценарию \"" + scenario.name() + "\" нужен StubRegistry");
+        }
+        boolean sessionOpen = false;
+        try {
+            for (int i = 0; i < scenario.steps().size(); i++) {
+                ScenarioStep step = scenario.steps().get(i);
+                if (step.stub() != null) {
+                    step.stub().apply(stubs, token);
+                }
+                StepResult result = send(i, step, token, apiKey);
+                if (result.status() == 200) {
+                    if ("LOGIN".equals(step.action())) {
+                        sessionOpen = true;
+                    } else if ("LOGOUT".equals(step.action())) {
+                        sessionOpen = false;
+                    }
+                }
+                listener.onStep(result);
+                if (!result.passed()) {
+                    return false;
+                }
+                pause(step.thinkTime());
+            }
+            return true;
+        } finally {
+            if (sessionOpen) {
+                listener.onStep(send(-1, CLEANUP_LOGOUT, token, apiKey));
+            }
+        }
+    }
+
+    /**
+     * Проверка сценария в тесте: каждый шаг — отдельный шаг Allure с телом ответа,
+     * первый неожиданный результат завершает тест ошибкой
+     */
+    public static void verify(Scenario scenario, StubRegistry stubs) {
+        String token = TestDataGenerator.generateToken();
+        Allure.parameter("Сценарий", scenario.name());
+        execute(scenario, token, Config.API_KEY, stubs, result -> {
+            if (result.cleanup()) {
+                return;
+            }
+            ScenarioStep step = result.step();
+            Allure.step(step.describe(), () -> {
+                if (result.response() != null) {
+                    Attachments.response("HTTP Response Body " + step.action(), result.response());
+                }
+                assertTrue(result.passed(), String.format("Шаг %d (%s) сценария \"%s\": ожидается код из %s%s, получен %s",
+                        result.index() + 1, step.action(), scenario.name(), step.expectedStatuses(),
+                        step.expectedResult() != null ? " и result=" + step.expectedResult() : "",
+                        describeActual(result)));
+            });
+        });
+    }
+
+    private static StepResult send(int index, ScenarioStep step, String token, String apiKey) {
+        long start = System.nanoTime();
+        try {
+            Response response = ApiClient.sendPost(token, step.action(), apiKey);
+            int status = response.getStatusCode();
+            boolean passed = step.expectedStatuses().contains(status)
+                    && (step.expectedResult() == null
+                    || ResponseView.of(response).fieldEquals("result", step.expectedResult()));
+            return new StepResult(index, step, status, System.nanoTime() - start, passed, response);
+        } catch (RuntimeException e) {
+            // Ошибка соединения — неуспешный шаг без ответа
+            return new StepResult(index, step, LatencyRecorder.NO_RESPONSE, System.nanoTime() - start, false, null);
+        }
+    }
+
+    private static String describeActual(StepResult result) {
+        if (result.response() == null) {
+            return "ошибка соединения";
+        }
+        String actualResult = ResponseView.of(result.response()).result();
+        return result.status() + (actualResult != null ? ", result=" + actualResult : "");
+    }
+
+    private static void pause(Duration thinkTime) {
+        if (thinkTime.isZero() || thinkTime.isNegative()) {
+            return;
+        }
+        try {
+            Thread.sleep(thinkTime.toMillis(), thinkTime.toNanosPart() % 1_000_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.autoqa.scenario;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Шаг сценария: один запрос к /endpoint и ожидаемый результат
+ * @param action значение параметра action
+ * @param expectedStatuses допустимые коды ответа
+ * @param expectedResult ожидаемое поле result или null, если не проверяется
+ * @param stub состояние внешнего сервиса перед шагом или null
+ * @param thinkTime пауза после шага
+ */
+public record ScenarioStep(String action, Set<Integer> expectedStatuses, String expectedResult,
+                           StubState stub, Duration thinkTime) {
+
+    public ScenarioStep {
+        expectedStatuses = Set.copyOf(expectedStatuses);
+    }
+
+    public String describe() {
+        StringBuilder sb = new StringBuilder(action).append(" → ").append(expectedStatuses);
+        if (expectedResult != null) {
+            sb.append(", result=").append(expectedResult);
+        }
+        if (stub != null) {
+            sb.append(", ").append(stub);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,73 @@
+package com.autoqa.scenario;
+
+import java.util.Map;
+
+/**
+ * Каталог сценариев, общих для функциональных тестов и нагрузки
+ */
+public class Scenarios {
+
+    /**
+     * LOGIN, затем два ACTION с тем же токеном
+     */
+    public static final Scenario REPEATED_ACTION = Scenario.named("Повторный ACTION")
+            .step("LOGIN").expectStatus(200)
+            .step("ACTION").expectStatus(200)
+            .step("ACTION").expectStatus(200)
+            .build();
+
+    /**
+     * LOGIN, LOGOUT, затем ACTION с завершённой сессией отклоняется
+     */
+    public static final Scenario ACTION_AFTER_LOGOUT = Scenario.named("ACTION после LOGOUT")
+            .step("LOGIN").expectStatus(200)
+            .step("LOGOUT").expectStatus(200)
+            .step("ACTION").expectStatus(400).expectResult("ERROR")
+            .build();
+
+    /**
+     * ACTION при ошибке внешнего /doAction возвращает 500
+     */
+    public static final Scenario ACTION_WHEN_DO_ACTION_FAILS = Scenario.named("ACTION при ошибке /doAction")
+            .step("LOGIN").expectStatus(200)
+            .step("ACTION").withStub(StubState.doActionFails(500)).expectStatus(500)
+            .build();
+
+    private static final Map<String, Scenario> BY_NAME = Map.of(
+            "REPEATED_ACTION", REPEATED_ACTION,
+            "ACTION_AFTER_LOGOUT", ACTION_AFTER_LOGOUT,
+            "ACTION_WHEN_DO_ACTION_FAILS", ACTION_WHEN_DO_ACTION_FAILS);
+
+    private Scenarios() {
+    }
+
+    /**
+     * Полный жизненный цикл сессии: LOGIN → ACTION × actions → LOGOUT
+     */
+    public static Scenario sessionLifecycle(int actions) {
+        Scenario.Builder builder = Scenario.named("LOGIN → ACTION ×" + actions + " → LOGOUT")
+                .step("LOGIN").expectStatus(200).expectResult("OK");
+        for (int i = 0; i < actions; i++) {
+            builder.step("ACTION").expectStatus(200).expectResult("OK");
+        }
+        return builder.step("LOGOUT").expectStatus(200).expectResult("OK").build();
+    }
+
+    /**
+     * Нагрузка из строки вида "REPEATED_ACTION:3,ACTION_AFTER_LOGOUT:1" (вес по умолчанию 1)
+     */
+    public static Workload parseWorkload(String spec) {
+        Workload.Builder builder = Workload.builder();
+        for (String part : spec.split(",")) {
+            String[] nameAndWeight = part.trim().split(":");
+            Scenario scenario = BY_NAME.get(nameAndWeight[0].trim());
+            if (scenario == null) {
+                throw new IllegalArgumentException("Неизвестный сценарий: " + nameAndWeight[0]
+                        + ", доступны " + BY_NAME.keySet());
+            }
+            int weight = nameAndWeight.length > 1 ? Integer.parseInt(nameAndWeight[1].trim()) : 1;
+            builder.add(scenario, weight);
+        }
+        return builder.build();
+    }
+}
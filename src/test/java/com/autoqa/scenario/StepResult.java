@@ -0,0 +1,20 @@
+package com.autoqa.scenario;
+
+import io.restassured.response.Response;
+
+/**
+ * Результат выполнения шага
+ * @param index номер шага в сценарии или -1 для завершающего LOGOUT, который отправляет ScenarioRunner
+ * @param step шаг сценария
+ * @param status код ответа или LatencyRecorder.NO_RESPONSE при ошибке соединения
+ * @param latencyNanos время запроса
+ * @param passed совпали ли код и result с ожидаемыми
+ * @param response ответ или null при ошибке соединения
+ */
+public record StepResult(int index, ScenarioStep step, int status, long latencyNanos, boolean passed,
+                         Response response) {
+
+    public boolean cleanup() {
+        return index < 0;
+    }
+}
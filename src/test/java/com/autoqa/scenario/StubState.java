@@ -0,0 +1,46 @@
+package com.autoqa.scenario;
+
+import com.autoqa.base.DownstreamProfile;
+import com.autoqa.base.StubRegistry;
+
+/**
+ * Состояние внешнего сервиса для токена сценария: ответ /auth или /doAction с заданным кодом
+ * и профилем задержек. Ставится через StubRegistry перед шагом и действует до конца сценария.
+ * @param path путь внешнего сервиса (StubRegistry.AUTH_PATH или DO_ACTION_PATH)
+ * @param status код ответа внешнего сервиса
+ * @param profile задержка или отказ внешнего сервиса
+ */
+public record StubState(String path, int status, DownstreamProfile profile) {
+
+    public static StubState authFails(int status) {
+        return new StubState(StubRegistry.AUTH_PATH, status, DownstreamProfile.instant());
+    }
+
+    public static StubState doActionFails(int status) {
+        return new StubState(StubRegistry.DO_ACTION_PATH, status, DownstreamProfile.instant());
+    }
+
+    /**
+     * Успешный /auth с задержкой или отказом по профилю
+     */
+    public static StubState auth(DownstreamProfile profile) {
+        return new StubState(StubRegistry.AUTH_PATH, 200, profile);
+    }
+
+    /**
+     * Успешный /doAction с задержкой или отказом по профилю
+     */
+    public static StubState doAction(DownstreamProfile profile) {
+        return new StubState(StubRegistry.DO_ACTION_PATH, 200, profile);
+    }
+
+    void apply(StubRegistry stubs, String token) {
+        stubs.stub(path, token, profile.applyTo(
+                status == 200 ? StubRegistry.okResponse() : StubRegistry.errorResponse(status)));
+    }
+
+    @Override
+    public String toString() {
+        return path + " → " + status + (profile.isInstant() ? "" : " (" + profile + ")");
+    }
+}
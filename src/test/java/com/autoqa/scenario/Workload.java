@@ -0,0 +1,89 @@
+package com.autoqa.scenario;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+import java.util.stream.Collectors;
+
+/**
+ * Взвешенная смесь сценариев для нагрузки: сценарий с весом 3 выполняется в среднем
+ * втрое чаще сценария с весом 1
+ */
+public class Workload {
+
+    public record Entry(Scenario scenario, int weight) {
+    }
+
+    private final List<Entry> entries;
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+
+    private Workload(List<Entry> entries) {
+        if (entries.isEmpty()) {
+            throw new IllegalArgumentException("Нагрузка не содержит сценариев");
+        }
+        this.entries = List.copyOf(entries);
+        this.cumulativeWeights = new int[entries.size()];
+        int total = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            total += entries.get(i).weight();
+            cumulativeWeights[i] = total;
+        }
+        this.totalWeight = total;
+    }
+
+    public static Workload of(Scenario scenario) {
+        return builder().add(scenario, 1).build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public List<Entry> entries() {
+        return entries;
+    }
+
+    /**
+     * Случайный сценарий с учётом весов
+     */
+    public Scenario pick(RandomGenerator random) {
+        if (entries.size() == 1) {
+            return entries.get(0).scenario();
+        }
+        int point = random.nextInt(totalWeight);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (point < cumulativeWeights[i]) {
+                return entries.get(i).scenario();
+            }
+        }
+        throw new IllegalStateException("Вес вне диапазона: " + point);
+    }
+
+    public boolean requiresStubs() {
+        return entries.stream().anyMatch(entry -> entry.scenario().requiresStubs());
+    }
+
+    public String describe() {
+        return entries.stream()
+                .map(entry -> entry.scenario().name() + " ×" + entry.weight())
+                .collect(Collectors.joining(", "));
+    }
+
+    public static class Builder {
+
+        private final List<Entry> entries = new ArrayList<>();
+
+        public Builder add(Scenario scenario, int weight) {
+            if (weight < 1) {
+                throw new IllegalArgumentException("Вес сценария должен быть больше 0: " + weight);
+            }
+            entries.add(new Entry(scenario, weight));
+            return this;
+        }
+
+        public Workload build() {
+            return new Workload(entries);
+        }
+    }
+}
@@ -1,12 +1,34 @@
 package com.autoqa.utils;
 
 import com.autoqa.base.Config;
+import com.autoqa.metrics.LatencyRecorder;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
 import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static io.restassured.RestAssured.given;
 
 public class ApiClient {
 
+    // Экземпляры приложения, между которыми распределяются запросы
+    private static final TargetSet TARGETS = TargetSet.defaultTargets();
+
+    // Спецификации запросов по экземплярам: собираются один раз и используют общий пул соединений
+    private static final RequestSpecification[] POOLED_SPECS = buildPooledSpecs();
+
+    // Журнал трафика из -Dtraffic.record или null
+    private static final TrafficRecorder RECORDER = TrafficRecorder.configured();
+
+    // Общий неблокирующий клиент; создаётся при первом асинхронном запросе
+    private static volatile AsyncApiClient asyncClient;
+
     /**
      * Универсальный метод POST запроса
      * @param token токен пользователя
@@ -14,8 +36,107 @@ public class ApiClient {
      * @param apiKey API-ключ (можно Config.API_KEY или кастомный)
      */
     public static Response sendPost(String token, String action, String apiKey) {
+        TargetSet.Target target = TARGETS.acquire(token);
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = isPooled()
+                    ? sendPostPooled(target, token, action, apiKey)
+                    : sendPostLegacy(target, token, action, apiKey);
+        } catch (RuntimeException e) {
+            long latency = System.nanoTime() - start;
+            target.complete(LatencyRecorder.NO_RESPONSE, latency);
+            LatencyRecorder.record(action, LatencyRecorder.NO_RESPONSE, latency);
+            if (RECORDER != null) {
+                RECORDER.record(start, latency, token, action, apiKey, LatencyRecorder.NO_RESPONSE, null);
+            }
+            throw e;
+        }
+        // Ответ учитывается один раз и вне try: сбой записи не превращает полученный ответ в NO_RESPONSE
+        int status = response.getStatusCode();
+        long latency = System.nanoTime() - start;
+        target.complete(status, latency);
+        LatencyRecorder.record(action, status, latency);
+        if (RECORDER != null) {
+            RECORDER.record(start, latency, token, action, apiKey, status, response.asByteArray());
+        }
+        SessionLeaseTracker.onResponse(token, action, status, SessionLeaseTracker.currentOwner());
+        return response;
+    }
+
+    /**
+     * Экземпляры приложения, на которые уходят запросы, и их показатели
+     */
+    public static TargetSet targets() {
+        return TARGETS;
+    }
+
+    private static Response sendPostPooled(TargetSet.Target target, String token, String action, String apiKey) {
+        Response response = buildRequest(target, token, action, apiKey)
+                .when()
+                .post()
+                .then()
+                .extract()
+                .response();
+        // Тело читается лениво: без явного чтения соединение не вернётся в пул
+        response.asByteArray();
+        return response;
+    }
+
+    /**
+     * Собирает запрос на основе общей спецификации экземпляра, выбранного для токена, не отправляя его
+     */
+    public static RequestSpecification buildRequest(String token, String action, String apiKey) {
+        return buildRequest(TARGETS.route(token), token, action, apiKey);
+    }
+
+    private static RequestSpecification buildRequest(TargetSet.Target target, String token, String action,
+                                                     String apiKey) {
         return given()
-                .baseUri(Config.BASE_URL)
+                .spec(POOLED_SPECS[target.index()])
+                .header("X-Api-Key", apiKey)
+                .formParam("token", token)
+                .formParam("action", action);
+    }
+
+    /**
+     * Неблокирующий аналог sendPost: поток вызывающего не ждёт ответа
+     * @param token токен пользователя
+     * @param action действие пользователя (LOGIN, ACTION, LOGOUT)
+     * @param apiKey API-ключ (можно Config.API_KEY или кастомный)
+     */
+    public static CompletableFuture<ApiResponse> sendPostAsync(String token, String action, String apiKey) {
+        return asyncClient().sendPost(token, action, apiKey);
+    }
+
+    /**
+     * Задаёт лимит одновременных асинхронных запросов общего клиента; новый лимит
+     * действует и на запросы, уже ждущие в его очереди
+     */
+    public static void setMaxInFlight(int maxInFlight) {
+        asyncClient().setMaxInFlight(maxInFlight);
+    }
+
+    private static AsyncApiClient asyncClient() {
+        AsyncApiClient client = asyncClient;
+        if (client == null) {
+            synchronized (ApiClient.class) {
+                client = asyncClient;
+                if (client == null) {
+                    client = AsyncApiClient.create(Config.ASYNC_MAX_IN_FLIGHT);
+                    asyncClient = client;
+                }
+            }
+        }
+        return client;
+    }
+
+    /**
+     * Прежнее поведение: спецификация и HTTP-клиент создаются заново на каждый запрос
+     */
+    private static Response sendPostLegacy(TargetSet.Target target, String token, String action, String apiKey) {
+        return given()
+                .baseUri(target.url())
                 .header("X-Api-Key", apiKey)
                 .contentType("application/x-www-form-urlencoded")
                 .formParam("token", token)
@@ -27,4 +148,43 @@ public class ApiClient {
                 .extract()
                 .response();
     }
-}
\ No newline at end of file
+
+    public static boolean isPooled() {
+        return !"legacy".equalsIgnoreCase(Config.CLIENT_MODE);
+    }
+
+    private static RequestSpecification[] buildPooledSpecs() {
+        // Одна конфигурация на все экземпляры: reuseHttpClientInstance хранит клиент в ней,
+        // поэтому все спецификации используют один пул соединений
+        HttpClientConfig httpClientConfig = HttpClientConfig.httpClientConfig()
+                .reuseHttpClientInstance()
+                .httpClientFactory(ApiClient::createPooledHttpClient);
+        RestAssuredConfig restAssuredConfig = RestAssuredConfig.config().httpClient(httpClientConfig);
+
+        List<TargetSet.Target> targets = TARGETS.targets();
+        RequestSpecification[] specs = new RequestSpecification[targets.size()];
+        for (TargetSet.Target target : targets) {
+            specs[target.index()] = new RequestSpecBuilder()
+                    .setBaseUri(target.url())
+                    .setContentType("application/x-www-form-urlencoded")
+                    .setAccept("application/json")
+                    .setConfig(restAssuredConfig)
+                    .build();
+        }
+        return specs;
+    }
+
+    /**
+     * Потокобезопасный HTTP-клиент с ограниченным пулом keep-alive соединений.
+     * REST Assured работает поверх AbstractHttpClient, поэтому используется DefaultHttpClient.
+     */
+    @SuppressWarnings("deprecation")
+    private static DefaultHttpClient createPooledHttpClient() {
+        PoolingClientConnectionManager connectionManager = new PoolingClientConnectionManager();
+        connectionManager.setMaxTotal(Config.POOL_MAX_CONNECTIONS);
+        // Лимит маршрута равен общему: при одном экземпляре или неравномерной маршрутизации
+        // один хост может занять весь пул
+        connectionManager.setDefaultMaxPerRoute(Config.POOL_MAX_CONNECTIONS);
+        return new DefaultHttpClient(connectionManager);
+    }
+}
@@ -0,0 +1,18 @@
+package com.autoqa.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Лёгкий ответ асинхронного клиента: только код, заголовки и сырые байты тела
+ * @param statusCode HTTP-код ответа
+ * @param headers заголовки ответа
+ * @param body тело ответа без преобразований
+ */
+public record ApiResponse(int statusCode, Map<String, List<String>> headers, byte[] body) {
+
+    public String bodyAsString() {
+        return new String(body, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,193 @@
+package com.autoqa.utils;
+
+import com.autoqa.metrics.LatencyRecorder;
+
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongConsumer;
+
+/**
+ * Неблокирующий клиент для POST /endpoint поверх java.net.http.HttpClient.
+ * Число одновременно отправленных запросов ограничено: лишние запросы ждут в очереди,
+ * не занимая вызывающий поток.
+ */
+public class AsyncApiClient {
+
+    // Журнал трафика из -Dtraffic.record или null
+    private static final TrafficRecorder RECORDER = TrafficRecorder.configured();
+
+    private final HttpClient httpClient;
+    private final TargetSet targets;
+    private volatile int maxInFlight;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+
+    private AsyncApiClient(TargetSet targets, int maxInFlight) {
+        requirePositive(maxInFlight);
+        this.targets = targets;
+        this.maxInFlight = maxInFlight;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+    }
+
+    /**
+     * Клиент для экземпляров из Config.BASE_URLS с заданным лимитом запросов «в полёте»
+     * @param maxInFlight максимальное число одновременно отправленных запросов
+     */
+    public static AsyncApiClient create(int maxInFlight) {
+        return create(TargetSet.defaultTargets(), maxInFlight);
+    }
+
+    /**
+     * Клиент для заданного набора экземпляров; лимит общий на все экземпляры
+     */
+    public static AsyncApiClient create(TargetSet targets, int maxInFlight) {
+        return new AsyncApiClient(targets, maxInFlight);
+    }
+
+    /**
+     * Асинхронный аналог ApiClient.sendPost
+     * @param token токен пользователя
+     * @param action действие пользователя (LOGIN, ACTION, LOGOUT)
+     * @param apiKey API-ключ (можно Config.API_KEY или кастомный)
+     */
+    public CompletableFuture<ApiResponse> sendPost(String token, String action, String apiKey) {
+        return sendPost(token, action, apiKey, null);
+    }
+
+    /**
+     * То же, но сообщает момент фактической отправки (System.nanoTime()) после ожидания слота лимита
+     * @param onDispatch получает момент отправки в потоке, который отправил запрос; может быть null
+     */
+    public CompletableFuture<ApiResponse> sendPost(String token, String action, String apiKey, LongConsumer onDispatch) {
+        // Экземпляр выбирается сразу: ожидание в очереди лимита считается незавершённым запросом к нему
+        TargetSet.Target target = targets.acquire(token);
+        HttpRequest.Builder builder = HttpRequest.newBuilder(target.uri())
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(formBody(token, action)));
+        // HttpClient не допускает null в заголовках, поэтому ключ добавляется только если он задан
+        if (apiKey != null) {
+            builder.header("X-Api-Key", apiKey);
+        }
+
+        CompletableFuture<ApiResponse> result = new CompletableFuture<>();
+        HttpRequest request = builder.build();
+        // Владелец сессии и область задержек определяются в потоке теста: ответ обрабатывается в другом потоке
+        String owner = SessionLeaseTracker.currentOwner();
+        String latencyScope = LatencyRecorder.currentScope();
+        pending.add(() -> dispatch(target, request, token, action, apiKey, latencyScope, onDispatch, result));
+        result.thenAccept(response -> SessionLeaseTracker.onResponse(token, action, response.statusCode(), owner));
+        drain();
+        return result;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public int maxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * Меняет лимит на ходу и действует и на запросы, уже ждущие в очереди: при увеличении они
+     * отправляются сразу, при уменьшении новые запросы ждут, пока число отправленных не опустится ниже лимита
+     */
+    public void setMaxInFlight(int maxInFlight) {
+        requirePositive(maxInFlight);
+        this.maxInFlight = maxInFlight;
+        drain();
+    }
+
+    private void dispatch(TargetSet.Target target, HttpRequest request, String token, String action,
+                          String apiKey, String latencyScope, LongConsumer onDispatch,
+                          CompletableFuture<ApiResponse> result) {
+        // Задержка считается от фактической отправки: ожидание в очереди лимита в неё не входит
+        long start = System.nanoTime();
+        if (onDispatch != null) {
+            onDispatch.accept(start);
+        }
+        CompletableFuture<HttpResponse<byte[]>> sent;
+        try {
+            sent = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (RuntimeException e) {
+            inFlight.decrementAndGet();
+            long latency = System.nanoTime() - start;
+            LatencyRecorder.record(latencyScope, action, LatencyRecorder.NO_RESPONSE, latency);
+            target.complete(LatencyRecorder.NO_RESPONSE, latency);
+            if (RECORDER != null) {
+                RECORDER.record(start, latency, token, action, apiKey, LatencyRecorder.NO_RESPONSE, null);
+            }
+            result.completeExceptionally(e);
+            return;
+        }
+        sent.whenComplete((response, error) -> {
+            inFlight.decrementAndGet();
+            int status = error != null ? LatencyRecorder.NO_RESPONSE : response.statusCode();
+            long latency = System.nanoTime() - start;
+            LatencyRecorder.record(latencyScope, action, status, latency);
+            target.complete(status, latency);
+            if (RECORDER != null) {
+                RECORDER.record(start, latency, token, action, apiKey, status, error != null ? null : response.body());
+            }
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                result.complete(new ApiResponse(
+                        response.statusCode(), response.headers().map(), response.body()));
+            }
+            drain();
+        });
+    }
+
+    // Забирает запросы из очереди, пока есть свободные слоты
+    private void drain() {
+        while (!pending.isEmpty()) {
+            int current = inFlight.get();
+            if (current >= maxInFlight) {
+                return;
+            }
+            if (!inFlight.compareAndSet(current, current + 1)) {
+                continue;
+            }
+            Runnable task = pending.poll();
+            if (task == null) {
+                inFlight.decrementAndGet();
+                continue;
+            }
+            task.run();
+        }
+    }
+
+    private static void requirePositive(int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight должен быть больше 0: " + maxInFlight);
+        }
+    }
+
+    private static String formBody(String token, String action) {
+        StringBuilder body = new StringBuilder(64);
+        appendParam(body, "token", token);
+        appendParam(body, "action", action);
+        return body.toString();
+    }
+
+    private static void appendParam(StringBuilder body, String name, String value) {
+        if (value == null) {
+            return;
+        }
+        if (body.length() > 0) {
+            body.append('&');
+        }
+        body.append(name).append('=').append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+    }
+}
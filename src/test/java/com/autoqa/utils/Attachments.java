@@ -0,0 +1,176 @@
+package com.autoqa.utils;
+
+import com.autoqa.base.Config;
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.restassured.response.Response;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Вложения Allure с учётом политики из Config (allure.attach.*).
+ * Содержимое передаётся лениво: тело ответа читается и копируется, только если вложение
+ * действительно сохраняется. В режимах on-failure и sampled отложенные вложения теста
+ * сохраняются, если тест упал (см. AttachmentPolicyExtension). В режиме sampled решение
+ * принимается один раз на тест: попавший в выборку тест сохраняет все свои вложения. Файлы пишутся фоновым
+ * потоком через ограниченную очередь; при её переполнении запись выполняет поток теста.
+ */
+public class Attachments {
+
+    public enum Mode { ALWAYS, ON_FAILURE, SAMPLED, OFF }
+
+    public static final Mode MODE = Mode.valueOf(Config.ATTACH_MODE.toUpperCase(Locale.ROOT).replace('-', '_'));
+
+    private static final String TYPE = "text/plain";
+    private static final String EXTENSION = ".txt";
+    private static final int WRITE_QUEUE_CAPACITY = 1024;
+
+    // Состояние текущего теста; null вне теста — тогда откладывать некуда
+    private static final ThreadLocal<TestAttachments> CURRENT = new ThreadLocal<>();
+
+    private static final ThreadPoolExecutor WRITER = createWriter();
+
+    private record Pending(String name, Supplier<byte[]> content) {
+    }
+
+    /**
+     * Вложения одного теста
+     * @param sampled тест попал в выборку режима sampled, его вложения пишутся сразу
+     * @param deferred вложения, которые сохраняются, только если тест упадёт
+     */
+    private record TestAttachments(boolean sampled, List<Pending> deferred) {
+    }
+
+    /**
+     * Тело ответа; читается только если вложение сохраняется
+     */
+    public static void response(String name, Response response) {
+        add(name, response::asByteArray);
+    }
+
+    public static void text(String name, String text) {
+        add(name, () -> text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static void text(String name, Supplier<String> text) {
+        add(name, () -> text.get().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void add(String name, Supplier<byte[]> content) {
+        switch (MODE) {
+            case ALWAYS -> write(name, content);
+            case SAMPLED -> {
+                TestAttachments current = CURRENT.get();
+                // Вне теста (например, в @AfterAll) выборка делается для каждого вложения
+                boolean sampled = current != null ? current.sampled() : sample();
+                if (sampled) {
+                    write(name, content);
+                } else {
+                    defer(name, content);
+                }
+            }
+            case ON_FAILURE -> defer(name, content);
+            case OFF -> {
+            }
+        }
+    }
+
+    /**
+     * Начало теста: с этого момента вложения откладываются до известного результата,
+     * а в режиме sampled решается, попал ли тест в выборку
+     */
+    public static void beginTest() {
+        CURRENT.set(new TestAttachments(MODE == Mode.SAMPLED && sample(), new ArrayList<>()));
+    }
+
+    /**
+     * Конец теста: отложенные вложения сохраняются только для упавшего теста
+     */
+    public static void endTest(boolean failed) {
+        TestAttachments current = CURRENT.get();
+        CURRENT.remove();
+        if (failed && current != null) {
+            for (Pending attachment : current.deferred()) {
+                write(attachment.name(), attachment.content());
+            }
+        }
+    }
+
+    /**
+     * Ждёт записи всех поставленных в очередь вложений
+     */
+    public static void awaitWrites() throws InterruptedException {
+        WRITER.shutdown();
+        WRITER.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    private static boolean sample() {
+        return ThreadLocalRandom.current().nextDouble() < Config.ATTACH_SAMPLE_RATE;
+    }
+
+    private static void defer(String name, Supplier<byte[]> content) {
+        TestAttachments current = CURRENT.get();
+        if (current != null) {
+            current.deferred().add(new Pending(name, content));
+        }
+    }
+
+    private static void write(String name, Supplier<byte[]> content) {
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        // prepareAttachment привязывает вложение к текущему шагу, поэтому вызывается в потоке теста
+        String source = lifecycle.prepareAttachment(name, TYPE, EXTENSION);
+        Runnable task = () -> lifecycle.writeAttachment(source, new ByteArrayInputStream(truncate(content.get())));
+        if (Config.ATTACH_ASYNC && !WRITER.isShutdown()) {
+            WRITER.execute(task);
+        } else {
+            task.run();
+        }
+    }
+
+    private static byte[] truncate(byte[] content) {
+        int max = Config.ATTACH_MAX_BYTES;
+        if (content.length <= max) {
+            return content;
+        }
+        int cut = max;
+        // Не разрезаем многобайтовый символ UTF-8
+        while (cut > 0 && (content[cut] & 0xC0) == 0x80) {
+            cut--;
+        }
+        byte[] suffix = String.format("%n... [обрезано: %d из %d байт]", content.length - cut, content.length)
+                .getBytes(StandardCharsets.UTF_8);
+        byte[] result = new byte[cut + suffix.length];
+        System.arraycopy(content, 0, result, 0, cut);
+        System.arraycopy(suffix, 0, result, cut, suffix.length);
+        return result;
+    }
+
+    private static ThreadPoolExecutor createWriter() {
+        ThreadPoolExecutor writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(WRITE_QUEUE_CAPACITY),
+                r -> {
+                    Thread thread = new Thread(r, "allure-attachment-writer");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        // Очередь дописывается до выхода JVM, иначе последние вложения потеряются
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                awaitWrites();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "allure-attachment-flush"));
+        return writer;
+    }
+}
@@ -0,0 +1,23 @@
+package com.autoqa.utils;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Итог массового LOGOUT
+ * @param requested сколько токенов передано
+ * @param released сколько LOGOUT завершились кодом 200
+ * @param failed сколько токенов не удалось освободить (4xx или исчерпаны попытки)
+ * @param retries сколько повторных попыток выполнено всего
+ * @param failedTokens токены, которые не удалось освободить
+ * @param elapsed длительность очистки
+ */
+public record CleanupReport(int requested, int released, int failed, int retries,
+                            List<String> failedTokens, Duration elapsed) {
+
+    @Override
+    public String toString() {
+        return String.format("LOGOUT: токенов %d, освобождено %d, ошибок %d, повторов %d, %.3f с",
+                requested, released, failed, retries, elapsed.toNanos() / 1e9);
+    }
+}
@@ -0,0 +1,268 @@
+package com.autoqa.utils;
+
+import io.restassured.response.Response;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Чтение полей верхнего уровня JSON-ответа прямо из байтов тела, без DOM и Groovy JsonPath.
+ * Ответы приложения — маленькие плоские объекты вида {"result":"OK"}, поэтому достаточно
+ * одного прохода по байтам: вложенные объекты и массивы пропускаются, не разбираясь.
+ * Некорректный JSON даёт null, как и отсутствующее поле.
+ */
+public class ResponseView {
+
+    private static final int NOT_FOUND = -1;
+
+    private final byte[] body;
+
+    private ResponseView(byte[] body) {
+        this.body = body;
+    }
+
+    public static ResponseView of(byte[] body) {
+        return new ResponseView(body);
+    }
+
+    public static ResponseView of(Response response) {
+        // asByteArray возвращает уже прочитанное тело без копирования в String
+        return new ResponseView(response.asByteArray());
+    }
+
+    public static ResponseView of(ApiResponse response) {
+        return new ResponseView(response.body());
+    }
+
+    /**
+     * Значение поля result
+     */
+    public String result() {
+        return getString("result");
+    }
+
+    /**
+     * Значение поля верхнего уровня как строка: для строк — без кавычек и с раскрытыми escape-последовательностями,
+     * для чисел, true/false, объектов и массивов — исходный текст JSON; для null и отсутствующего поля — null
+     */
+    public String getString(String field) {
+        int start = valueStart(field);
+        if (start == NOT_FOUND) {
+            return null;
+        }
+        if (body[start] == '"') {
+            int end = stringEnd(start);
+            return end == NOT_FOUND ? null : decodeString(start + 1, end);
+        }
+        int end = skipValue(start);
+        if (end == NOT_FOUND) {
+            return null;
+        }
+        String raw = new String(body, start, end - start, StandardCharsets.UTF_8);
+        return "null".equals(raw) ? null : raw;
+    }
+
+    /**
+     * Сравнивает строковое поле с ожидаемым значением без создания строк (для ASCII-значений)
+     */
+    public boolean fieldEquals(String field, String expected) {
+        int start = valueStart(field);
+        if (start == NOT_FOUND || body[start] != '"') {
+            return false;
+        }
+        int end = stringEnd(start);
+        if (end == NOT_FOUND) {
+            return false;
+        }
+        int length = end - start - 1;
+        if (length != expected.length()) {
+            // Значение с escape-последовательностями или не-ASCII символами сравнивается после декодирования
+            return length > expected.length() && expected.equals(decodeString(start + 1, end));
+        }
+        for (int i = 0; i < length; i++) {
+            byte b = body[start + 1 + i];
+            if (b == '\\' || b < 0) {
+                return expected.equals(decodeString(start + 1, end));
+            }
+            if (b != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean has(String field) {
+        return valueStart(field) != NOT_FOUND;
+    }
+
+    // Позиция первого байта значения поля верхнего уровня
+    private int valueStart(String field) {
+        int i = skipWhitespace(0);
+        if (i >= body.length || body[i] != '{') {
+            return NOT_FOUND;
+        }
+        i = skipWhitespace(i + 1);
+        if (i < body.length && body[i] == '}') {
+            return NOT_FOUND;
+        }
+        while (i < body.length && body[i] == '"') {
+            int keyEnd = stringEnd(i);
+            if (keyEnd == NOT_FOUND) {
+                return NOT_FOUND;
+            }
+            boolean matches = keyEquals(i + 1, keyEnd, field);
+            i = skipWhitespace(keyEnd + 1);
+            if (i >= body.length || body[i] != ':') {
+                return NOT_FOUND;
+            }
+            i = skipWhitespace(i + 1);
+            if (i >= body.length) {
+                return NOT_FOUND;
+            }
+            if (matches) {
+                return i;
+            }
+            i = skipValue(i);
+            if (i == NOT_FOUND) {
+                return NOT_FOUND;
+            }
+            i = skipWhitespace(i);
+            if (i >= body.length || body[i] != ',') {
+                return NOT_FOUND;
+            }
+            i = skipWhitespace(i + 1);
+        }
+        return NOT_FOUND;
+    }
+
+    private boolean keyEquals(int from, int to, String field) {
+        int length = to - from;
+        if (length == field.length()) {
+            boolean plain = true;
+            for (int i = 0; i < length; i++) {
+                byte b = body[from + i];
+                if (b == '\\' || b < 0) {
+                    plain = false;
+                    break;
+                }
+                if (b != field.charAt(i)) {
+                    return false;
+                }
+            }
+            if (plain) {
+                return true;
+            }
+        } else if (length < field.length()) {
+            return false;
+        }
+        return field.equals(decodeString(from, to));
+    }
+
+    // Позиция закрывающей кавычки строки, начинающейся в start
+    private int stringEnd(int start) {
+        for (int i = start + 1; i < body.length; i++) {
+            byte b = body[i];
+            if (b == '\\') {
+                i++;
+            } else if (b == '"') {
+                return i;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    // Позиция сразу после значения: строки, числа, литерала, объекта или массива
+    private int skipValue(int start) {
+        byte first = body[start];
+        if (first == '"') {
+            int end = stringEnd(start);
+            return end == NOT_FOUND ? NOT_FOUND : end + 1;
+        }
+        if (first == '{' || first == '[') {
+            int depth = 0;
+            for (int i = start; i < body.length; i++) {
+                byte b = body[i];
+                if (b == '"') {
+                    i = stringEnd(i);
+                    if (i == NOT_FOUND) {
+                        return NOT_FOUND;
+                    }
+                } else if (b == '{' || b == '[') {
+                    depth++;
+                } else if (b == '}' || b == ']') {
+                    depth--;
+                    if (depth == 0) {
+                        return i + 1;
+                    }
+                }
+            }
+            return NOT_FOUND;
+        }
+        int i = start;
+        while (i < body.length && body[i] != ',' && body[i] != '}' && !isWhitespace(body[i])) {
+            i++;
+        }
+        return i == start ? NOT_FOUND : i;
+    }
+
+    private int skipWhitespace(int i) {
+        while (i < body.length && isWhitespace(body[i])) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+
+    private String decodeString(int from, int to) {
+        int escape = from;
+        while (escape < to && body[escape] != '\\') {
+            escape++;
+        }
+        if (escape == to) {
+            return new String(body, from, to - from, StandardCharsets.UTF_8);
+        }
+        StringBuilder sb = new StringBuilder(to - from);
+        sb.append(new String(body, from, escape - from, StandardCharsets.UTF_8));
+        int i = escape;
+        while (i < to) {
+            byte b = body[i];
+            if (b != '\\') {
+                int runEnd = i;
+                while (runEnd < to && body[runEnd] != '\\') {
+                    runEnd++;
+                }
+                sb.append(new String(body, i, runEnd - i, StandardCharsets.UTF_8));
+                i = runEnd;
+                continue;
+            }
+            if (i + 1 >= to) {
+                break;
+            }
+            char c = (char) body[i + 1];
+            switch (c) {
+                case 'b' -> sb.append('\b');
+                case 'f' -> sb.append('\f');
+                case 'n' -> sb.append('\n');
+                case 'r' -> sb.append('\r');
+                case 't' -> sb.append('\t');
+                case 'u' -> {
+                    if (i + 6 > to) {
+                        return sb.toString();
+                    }
+                    String hex = new String(body, i + 2, 4, StandardCharsets.US_ASCII);
+                    try {
+                        sb.append((char) Integer.parseInt(hex, 16));
+                    } catch (NumberFormatException e) {
+                        sb.append("\\u").append(hex);
+                    }
+                    i += 4;
+                }
+                default -> sb.append(c);
+            }
+            i += 2;
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,72 @@
+package com.autoqa.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Чтение полей JSON-ответа ResponseView")
+public class ResponseViewTest {
+
+    private static ResponseView view(String json) {
+        return ResponseView.of(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Плоский ответ приложения")
+    public void flatResponse_shouldReturnResult() {
+        ResponseView view = view("{\"result\":\"OK\"}");
+
+        assertEquals("OK", view.result());
+        assertTrue(view.fieldEquals("result", "OK"));
+        assertFalse(view.fieldEquals("result", "ERROR"));
+    }
+
+    @Test
+    @DisplayName("Экранированные кавычки и escape-последовательности в ключах и значениях")
+    public void escapedQuotes_shouldBeDecoded() {
+        ResponseView view = view("{\"message\":\"say \\\"hi\\\"\\n\", \"res\\u0075lt\" : \"ERR\\\"OR\"}");
+
+        assertEquals("say \"hi\"\n", view.getString("message"));
+        assertEquals("ERR\"OR", view.result());
+        assertTrue(view.fieldEquals("result", "ERR\"OR"));
+    }
+
+    @Test
+    @DisplayName("Вложенные объекты и массивы пропускаются, их поля не видны на верхнем уровне")
+    public void nestedObjects_shouldBeSkipped() {
+        ResponseView view = view("{\"details\":{\"result\":\"INNER\",\"list\":[1,{\"a\":\"]}\"}]},"
+                + "\"items\":[\"x\",\"y\"],\"result\":\"OK\"}");
+
+        assertEquals("OK", view.result());
+        assertEquals("{\"result\":\"INNER\",\"list\":[1,{\"a\":\"]}\"}]}", view.getString("details"));
+        assertEquals("[\"x\",\"y\"]", view.getString("items"));
+    }
+
+    @Test
+    @DisplayName("Нестроковый result возвращается исходным текстом JSON, null — как null")
+    public void nonStringResult_shouldReturnRawValue() {
+        assertEquals("42", view("{\"result\":42}").result());
+        assertEquals("true", view("{\"result\" : true }").result());
+        assertEquals("{\"code\":1}", view("{\"result\":{\"code\":1}}").result());
+        assertNull(view("{\"result\":null}").result());
+        assertTrue(view("{\"result\":null}").has("result"));
+        assertFalse(view("{\"result\":42}").fieldEquals("result", "42"));
+    }
+
+    @Test
+    @DisplayName("Отсутствующее поле и некорректный JSON дают null")
+    public void missingFieldOrBrokenJson_shouldReturnNull() {
+        assertNull(view("{\"message\":\"no result\"}").result());
+        assertFalse(view("{}").has("result"));
+        assertNull(view("").result());
+        assertNull(view("[\"result\"]").result());
+        assertNull(view("{\"result\":\"OK").result());
+        assertNull(view("{\"other\":\"x\" \"result\":\"OK\"}").result());
+    }
+}
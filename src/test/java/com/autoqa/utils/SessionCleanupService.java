@@ -0,0 +1,119 @@
+package com.autoqa.utils;
+
+import com.autoqa.base.Config;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Массовый LOGOUT: освобождает любое количество сессий параллельно через AsyncApiClient.
+ * Одновременно выполняется не больше parallelism запросов; ответы 5xx и ошибки соединения
+ * повторяются с экспоненциальной задержкой, остальные коды кроме 200 считаются отказом.
+ * Сервис не хранит состояния между вызовами logoutAll, поэтому один экземпляр (и его
+ * HttpClient с пулом соединений) можно использовать сколько угодно раз и из разных потоков.
+ */
+public class SessionCleanupService {
+
+    // Задержка перед первым повтором LOGOUT в настройках по умолчанию
+    public static final Duration DEFAULT_RETRY_DELAY = Duration.ofMillis(100);
+
+    private final AsyncApiClient client;
+    private final int maxAttempts;
+    private final Duration retryDelay;
+    private final String apiKey;
+
+    /**
+     * @param parallelism максимальное число одновременных LOGOUT
+     * @param maxAttempts число попыток на токен, включая первую
+     * @param retryDelay задержка перед первым повтором, дальше удваивается
+     */
+    public SessionCleanupService(int parallelism, int maxAttempts, Duration retryDelay, String apiKey) {
+        this(AsyncApiClient.create(parallelism), maxAttempts, retryDelay, apiKey);
+    }
+
+    /**
+     * Сервис поверх клиента вызывающего; число одновременных LOGOUT ограничено лимитом клиента
+     */
+    public SessionCleanupService(AsyncApiClient client, int maxAttempts, Duration retryDelay, String apiKey) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts должен быть больше 0: " + maxAttempts);
+        }
+        this.client = client;
+        this.maxAttempts = maxAttempts;
+        this.retryDelay = retryDelay;
+        this.apiKey = apiKey;
+    }
+
+    /**
+     * Общий сервис с настройками из Config (cleanup.parallelism, cleanup.max.attempts);
+     * создаётся при первом вызове
+     */
+    public static SessionCleanupService withDefaults() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * Выполняет LOGOUT для всех токенов и ждёт завершения
+     */
+    public CleanupReport logoutAll(Collection<String> tokens) {
+        return logoutAllAsync(tokens).join();
+    }
+
+    public CompletableFuture<CleanupReport> logoutAllAsync(Collection<String> tokens) {
+        long start = System.nanoTime();
+        AtomicInteger released = new AtomicInteger();
+        AtomicInteger retries = new AtomicInteger();
+        Queue<String> failed = new ConcurrentLinkedQueue<>();
+
+        CompletableFuture<?>[] logouts = new CompletableFuture<?>[tokens.size()];
+        int i = 0;
+        for (String token : tokens) {
+            logouts[i++] = logout(token, 1, retries).thenAccept(success -> {
+                if (success) {
+                    released.incrementAndGet();
+                } else {
+                    failed.add(token);
+                }
+            });
+        }
+        return CompletableFuture.allOf(logouts).thenApply(ignored -> new CleanupReport(
+                tokens.size(), released.get(), failed.size(), retries.get(),
+                List.copyOf(failed), Duration.ofNanos(System.nanoTime() - start)));
+    }
+
+    private CompletableFuture<Boolean> logout(String token, int attempt, AtomicInteger retries) {
+        return client.sendPost(token, "LOGOUT", apiKey)
+                .handle((response, error) -> {
+                    boolean transientFailure = error != null || response.statusCode() >= 500;
+                    if (!transientFailure) {
+                        return CompletableFuture.completedFuture(response.statusCode() == 200);
+                    }
+                    if (attempt >= maxAttempts) {
+                        return CompletableFuture.completedFuture(false);
+                    }
+                    retries.incrementAndGet();
+                    // Повтор ставится в очередь клиента после паузы, не занимая слот лимита
+                    return CompletableFuture.supplyAsync(() -> token, delayBefore(attempt))
+                            .thenCompose(t -> logout(t, attempt + 1, retries));
+                })
+                .thenCompose(result -> result);
+    }
+
+    private Executor delayBefore(int attempt) {
+        long delay = retryDelay.toMillis() << (attempt - 1);
+        return CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS);
+    }
+
+    // Ленивая инициализация: HttpClient общего сервиса создаётся, только если очистка понадобилась
+    private static final class DefaultHolder {
+        private static final SessionCleanupService INSTANCE = new SessionCleanupService(Config.CLEANUP_PARALLELISM,
+                Config.CLEANUP_MAX_ATTEMPTS, DEFAULT_RETRY_DELAY, Config.API_KEY);
+    }
+}
@@ -0,0 +1,94 @@
+package com.autoqa.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Учёт открытых сессий: каждый успешный LOGIN через ApiClient или AsyncApiClient
+ * регистрирует токен за текущим тестом, успешный LOGOUT снимает регистрацию.
+ * Сессии, оставшиеся после теста, считаются утечкой этого теста; в конце прогона
+ * все оставшиеся сессии освобождаются одним параллельным LOGOUT (см. SessionLeaseExtension).
+ */
+public class SessionLeaseTracker {
+
+    /**
+     * Владелец сессий, открытых вне теста (например, в @BeforeAll или в нагрузочном движке)
+     */
+    public static final String NO_OWNER = "вне теста";
+
+    private static final Map<String, String> LEASES = new ConcurrentHashMap<>();
+    private static final Map<String, Integer> LEAKS_BY_OWNER = new ConcurrentHashMap<>();
+    private static final ThreadLocal<String> OWNER = new ThreadLocal<>();
+
+    private SessionLeaseTracker() {
+    }
+
+    public static void setOwner(String owner) {
+        OWNER.set(owner);
+    }
+
+    public static void clearOwner() {
+        OWNER.remove();
+    }
+
+    public static String currentOwner() {
+        String owner = OWNER.get();
+        return owner != null ? owner : NO_OWNER;
+    }
+
+    /**
+     * Учитывает ответ на запрос к /endpoint
+     * @param owner владелец, определённый в момент отправки запроса
+     */
+    public static void onResponse(String token, String action, int status, String owner) {
+        if (token == null || status != 200) {
+            return;
+        }
+        if ("LOGIN".equals(action)) {
+            LEASES.put(token, owner);
+        } else if ("LOGOUT".equals(action)) {
+            LEASES.remove(token);
+        }
+    }
+
+    /**
+     * Токены, которые владелец открыл и не закрыл
+     */
+    public static List<String> leasedBy(String owner) {
+        List<String> tokens = new ArrayList<>();
+        LEASES.forEach((token, leaseOwner) -> {
+            if (leaseOwner.equals(owner)) {
+                tokens.add(token);
+            }
+        });
+        return tokens;
+    }
+
+    /**
+     * Фиксирует утечку сессий теста для итогового отчёта
+     */
+    public static void reportLeaks(String owner, int count) {
+        LEAKS_BY_OWNER.merge(owner, count, Integer::sum);
+    }
+
+    /**
+     * Число незакрытых сессий по тестам, в которых они были открыты
+     */
+    public static Map<String, Integer> leaksByOwner() {
+        return new TreeMap<>(LEAKS_BY_OWNER);
+    }
+
+    public static int outstanding() {
+        return LEASES.size();
+    }
+
+    /**
+     * Освобождает все незакрытые сессии; успешные LOGOUT снимают регистрацию сами
+     */
+    public static CleanupReport releaseAll() {
+        return SessionCleanupService.withDefaults().logoutAll(new ArrayList<>(LEASES.keySet()));
+    }
+}
@@ -0,0 +1,195 @@
+package com.autoqa.utils;
+
+import com.autoqa.base.Config;
+import com.autoqa.metrics.LatencyHistogram;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Набор экземпляров приложения, между которыми ApiClient и AsyncApiClient распределяют запросы.
+ * По умолчанию берётся из -Dbase.urls (через запятую) или одного -Dbase.url, способ выбора — -Dtarget.routing.
+ *
+ * Сессии хранятся в памяти каждого экземпляра, поэтому для сценариев LOGIN → ACTION → LOGOUT
+ * нужна маршрутизация token-hash: все запросы одного токена уходят на один экземпляр.
+ * round-robin и least-outstanding подходят для запросов без сессии или для экземпляров
+ * за общим хранилищем сессий.
+ */
+public class TargetSet {
+
+    /**
+     * Способ выбора экземпляра для запроса
+     */
+    public enum Routing {
+        ROUND_ROBIN, LEAST_OUTSTANDING, TOKEN_HASH;
+
+        /**
+         * round-robin, least-outstanding или token-hash
+         */
+        public static Routing parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Неизвестная маршрутизация: " + value
+                        + ", доступны round-robin, least-outstanding, token-hash", e);
+            }
+        }
+    }
+
+    private static volatile TargetSet defaultTargets;
+
+    private final Target[] targets;
+    private final Routing routing;
+    private final AtomicInteger nextIndex = new AtomicInteger();
+
+    private TargetSet(List<String> urls, Routing routing) {
+        if (urls.isEmpty()) {
+            throw new IllegalArgumentException("Не задано ни одного адреса приложения");
+        }
+        this.targets = new Target[urls.size()];
+        for (int i = 0; i < targets.length; i++) {
+            targets[i] = new Target(i, urls.get(i).trim());
+        }
+        this.routing = routing;
+    }
+
+    public static TargetSet of(List<String> urls, Routing routing) {
+        return new TargetSet(urls, routing);
+    }
+
+    /**
+     * Общий набор из Config.BASE_URLS и Config.TARGET_ROUTING
+     */
+    public static TargetSet defaultTargets() {
+        TargetSet current = defaultTargets;
+        if (current == null) {
+            synchronized (TargetSet.class) {
+                current = defaultTargets;
+                if (current == null) {
+                    current = of(Arrays.asList(Config.BASE_URLS.split(",")), Routing.parse(Config.TARGET_ROUTING));
+                    defaultTargets = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    public Routing routing() {
+        return routing;
+    }
+
+    public List<Target> targets() {
+        return List.of(targets);
+    }
+
+    /**
+     * Экземпляр для запроса с данным токеном. Вызывающий обязан завершить запрос через Target.complete,
+     * иначе счётчик незавершённых запросов экземпляра не уменьшится.
+     */
+    public Target acquire(String token) {
+        Target target = route(token);
+        target.outstanding.incrementAndGet();
+        return target;
+    }
+
+    /**
+     * Экземпляр, который был бы выбран для токена, без учёта запроса в счётчиках
+     */
+    public Target route(String token) {
+        if (targets.length == 1) {
+            return targets[0];
+        }
+        switch (routing) {
+            case TOKEN_HASH:
+                if (token != null) {
+                    // Перемешивание хеша: последовательные токены TokenSequencer отличаются последними символами
+                    int mixed = token.hashCode() * 0x9E3779B9;
+                    return targets[Math.floorMod(mixed ^ (mixed >>> 16), targets.length)];
+                }
+                return nextRoundRobin();
+            case LEAST_OUTSTANDING:
+                // Обход с разных стартовых позиций, чтобы при равенстве нагрузка не уходила на первый экземпляр
+                int start = Math.floorMod(nextIndex.getAndIncrement(), targets.length);
+                Target best = targets[start];
+                for (int i = 1; i < targets.length; i++) {
+                    Target candidate = targets[(start + i) % targets.length];
+                    if (candidate.outstanding.get() < best.outstanding.get()) {
+                        best = candidate;
+                    }
+                }
+                return best;
+            default:
+                return nextRoundRobin();
+        }
+    }
+
+    private Target nextRoundRobin() {
+        return targets[Math.floorMod(nextIndex.getAndIncrement(), targets.length)];
+    }
+
+    /**
+     * Текущие показатели всех экземпляров
+     */
+    public List<TargetStats> snapshot() {
+        List<TargetStats> stats = new ArrayList<>(targets.length);
+        for (Target target : targets) {
+            stats.add(new TargetStats(target.url, target.requests.sum(), target.errors.sum(),
+                    target.latency.snapshot()));
+        }
+        return stats;
+    }
+
+    /**
+     * Один экземпляр приложения и его показатели
+     */
+    public static final class Target {
+
+        private final int index;
+        private final String url;
+        private final URI uri;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        private Target(int index, String url) {
+            this.index = index;
+            this.url = url;
+            this.uri = URI.create(url);
+        }
+
+        public int index() {
+            return index;
+        }
+
+        public String url() {
+            return url;
+        }
+
+        public URI uri() {
+            return uri;
+        }
+
+        public int outstanding() {
+            return outstanding.get();
+        }
+
+        /**
+         * Завершает запрос, полученный через acquire
+         * @param status код ответа или LatencyRecorder.NO_RESPONSE при ошибке соединения
+         */
+        public void complete(int status, long latencyNanos) {
+            outstanding.decrementAndGet();
+            requests.increment();
+            latency.record(latencyNanos);
+            if (status < 200 || status >= 500) {
+                errors.increment();
+            }
+        }
+    }
+}
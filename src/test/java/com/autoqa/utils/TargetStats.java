@@ -0,0 +1,52 @@
+package com.autoqa.utils;
+
+import com.autoqa.metrics.HistogramSnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Показатели одного экземпляра приложения
+ * @param url адрес экземпляра
+ * @param requests сколько запросов завершено
+ * @param errors сколько запросов завершились 5xx или ошибкой соединения
+ * @param latency задержки запросов к экземпляру
+ */
+public record TargetStats(String url, long requests, long errors, HistogramSnapshot latency) {
+
+    /**
+     * Показатели за период после снимка earlier того же экземпляра
+     */
+    public TargetStats minus(TargetStats earlier) {
+        return new TargetStats(url, requests - earlier.requests, errors - earlier.errors,
+                latency.minus(earlier.latency));
+    }
+
+    /**
+     * Поэлементная разность двух снимков TargetSet.snapshot()
+     */
+    public static List<TargetStats> difference(List<TargetStats> current, List<TargetStats> earlier) {
+        List<TargetStats> result = new ArrayList<>(current.size());
+        for (int i = 0; i < current.size(); i++) {
+            result.add(current.get(i).minus(earlier.get(i)));
+        }
+        return result;
+    }
+
+    /**
+     * Таблица по экземплярам с долей запросов каждого
+     */
+    public static String format(List<TargetStats> stats) {
+        long total = stats.stream().mapToLong(TargetStats::requests).sum();
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-40s %9s %7s %8s %9s %9s %9s%n",
+                "Экземпляр", "запросов", "доля,%", "ошибок", "p50,ms", "p99,ms", "max,ms"));
+        for (TargetStats target : stats) {
+            sb.append(String.format("%-40s %9d %7.1f %8d %9.2f %9.2f %9.2f%n",
+                    target.url(), target.requests(), total == 0 ? 0 : target.requests() * 100.0 / total,
+                    target.errors(), target.latency().percentileMillis(50), target.latency().percentileMillis(99),
+                    target.latency().maxMillis()));
+        }
+        return sb.toString();
+    }
+}
@@ -1,19 +1,66 @@
 package com.autoqa.utils;
 
+import com.autoqa.base.Config;
+
 import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class TestDataGenerator {
 
     private static final String CHAR_POOL = "ABCDEF0123456789";
+    private static final char[] POOL = CHAR_POOL.toCharArray();
     private static final SecureRandom RANDOM = new SecureRandom();
 
-    // Генерация случайного токена длиной 32 символа
+    // Seed быстрого режима: -Dtoken.seed=<число> воспроизводит токены упавшего прогона
+    private static final long FAST_SEED = Long.getLong("token.seed", RANDOM.nextLong());
+    private static final AtomicLong FAST_STREAMS = new AtomicLong();
+    private static final ThreadLocal<TokenStream> FAST_STREAM =
+            ThreadLocal.withInitial(() -> new TokenStream(FAST_SEED, FAST_STREAMS.getAndIncrement()));
+
+    private static final ThreadLocal<TokenSequencer> UNIQUE_SEQUENCER =
+            ThreadLocal.withInitial(TokenSequencer::newWorker);
+
+    // Генерация случайного токена длиной 32 символа (криптостойкий режим)
     public static String generateToken() {
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < 32; i++) {
-            sb.append(CHAR_POOL.charAt(RANDOM.nextInt(CHAR_POOL.length())));
+        char[] chars = new char[Config.TOKEN_LENGTH];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = POOL[RANDOM.nextInt(POOL.length)];
         }
-        return sb.toString();
+        return new String(chars);
+    }
+
+    /**
+     * Быстрый режим для генерации нагрузки: без общей блокировки, у каждого потока свой
+     * TokenStream. Токены не криптостойкие, но воспроизводимы по seed из fastSeed() только в
+     * однопоточном прогоне: номер потока токенов выдаётся в порядке первого обращения, и при
+     * параллельной генерации один и тот же seed даёт потокам разные токены. Для воспроизводимой
+     * нагрузки берите поток явно — stream(seed, номер пользователя), как SessionLoadEngine.
+     */
+    public static String generateFastToken() {
+        return FAST_STREAM.get().next();
+    }
+
+    /**
+     * Seed быстрого режима; его стоит выводить в лог, чтобы можно было повторить прогон
+     * (однопоточный — см. generateFastToken)
+     */
+    public static long fastSeed() {
+        return FAST_SEED;
+    }
+
+    /**
+     * Уникальный токен: не повторяется ни в других потоках, ни в других JVM прогона
+     * (см. TokenSequencer). Подходит для массовых LOGIN, где коллизия дала бы 409.
+     */
+    public static String generateUniqueToken() {
+        return UNIQUE_SEQUENCER.get().next();
+    }
+
+    /**
+     * Отдельный воспроизводимый поток токенов, например для конкретного виртуального пользователя
+     */
+    public static TokenStream stream(long seed, long streamIndex) {
+        return new TokenStream(seed, streamIndex);
     }
 
     public static void main(String[] args) {
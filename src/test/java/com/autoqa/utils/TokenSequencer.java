@@ -0,0 +1,150 @@
+package com.autoqa.utils;
+
+import com.autoqa.base.Config;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Генератор гарантированно уникальных токенов для параллельных прогонов.
+ * Токен из 32 символов A-Z0-9 состоит из трёх полей в base36:
+ * <pre>
+ *   [0..10)  id прогона   — общий для всех потоков и JVM одного прогона
+ *   [10..19) id воркера   — процесс (pid) и номер воркера внутри процесса
+ *   [19..32) счётчик      — монотонный счётчик воркера
+ * </pre>
+ * Разные воркеры и разные JVM не пересекаются без какой-либо координации, а следующий
+ * токен получается инкрементом счётчика прямо в буфере символов. Экземпляр не потокобезопасен:
+ * каждому потоку нужен свой воркер.
+ */
+public class TokenSequencer {
+
+    public static final String ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+    private static final int RUN_ID_LENGTH = 10;
+    private static final int WORKER_ID_LENGTH = 9;
+
+    // Номер воркера внутри процесса занимает младшие 20 бит id воркера, остальное — id процесса
+    public static final int MAX_LOCAL_WORKERS = 1 << 20;
+    private static final long PROCESS_ID_MASK = (1L << 26) - 1;
+
+    private static final char[] DIGITS = ALPHABET.toCharArray();
+    private static final int[] DIGIT_VALUES = digitValues();
+
+    /**
+     * Id прогона по умолчанию: -Dtoken.run.id или случайное значение. Чтобы несколько JVM
+     * считались одним прогоном, передайте им одинаковый token.run.id.
+     */
+    public static final String RUN_ID = normalizeRunId(System.getProperty("token.run.id", randomRunId()));
+
+    // Id процесса в поле воркера: pid или -Dtoken.process.id (например, номер воркера координатора)
+    private static final long PROCESS_ID =
+            Long.getLong("token.process.id", ProcessHandle.current().pid()) & PROCESS_ID_MASK;
+
+    // Следующий свободный номер воркера внутри процесса
+    private static final AtomicInteger LOCAL_WORKERS = new AtomicInteger();
+
+    private final String runId;
+    private final long workerId;
+    private final char[] buffer = new char[Config.TOKEN_LENGTH];
+
+    /**
+     * @param runId id прогона, до 10 символов A-Z0-9
+     * @param workerId id воркера, уникальный в пределах прогона
+     */
+    public TokenSequencer(String runId, long workerId) {
+        this.runId = normalizeRunId(runId);
+        this.workerId = workerId;
+        this.runId.getChars(0, RUN_ID_LENGTH, buffer, 0);
+        encode(workerId, buffer, RUN_ID_LENGTH, WORKER_ID_LENGTH);
+        // Счётчик начинается с нуля, первый next() вернёт значение 1
+        for (int i = RUN_ID_LENGTH + WORKER_ID_LENGTH; i < buffer.length; i++) {
+            buffer[i] = DIGITS[0];
+        }
+    }
+
+    /**
+     * Новый воркер текущего процесса в прогоне RUN_ID. Номер воркера внутри процесса выдаёт
+     * общий счётчик, поэтому воркеры движка нагрузки, раннеров и генератора тестовых данных
+     * в одной JVM никогда не получают одинаковые токены.
+     */
+    public static TokenSequencer newWorker() {
+        int localIndex = LOCAL_WORKERS.getAndIncrement();
+        if (localIndex < 0 || localIndex >= MAX_LOCAL_WORKERS) {
+            throw new IllegalStateException("Исчерпаны номера воркеров процесса: " + MAX_LOCAL_WORKERS);
+        }
+        return new TokenSequencer(RUN_ID, (PROCESS_ID << 20) | localIndex);
+    }
+
+    public String runId() {
+        return runId;
+    }
+
+    public long workerId() {
+        return workerId;
+    }
+
+    /**
+     * Следующий уникальный токен
+     */
+    public String next() {
+        increment();
+        return new String(buffer);
+    }
+
+    /**
+     * Записывает следующий уникальный токен в dst начиная с offset без аллокаций
+     */
+    public void nextInto(char[] dst, int offset) {
+        increment();
+        System.arraycopy(buffer, 0, dst, offset, buffer.length);
+    }
+
+    // Инкремент base36-«одометра» в хвосте буфера: в среднем меняется один символ
+    private void increment() {
+        for (int i = buffer.length - 1; i >= RUN_ID_LENGTH + WORKER_ID_LENGTH; i--) {
+            int value = DIGIT_VALUES[buffer[i]] + 1;
+            if (value < DIGITS.length) {
+                buffer[i] = DIGITS[value];
+                return;
+            }
+            buffer[i] = DIGITS[0];
+        }
+        throw new IllegalStateException("Счётчик токенов воркера " + workerId + " исчерпан");
+    }
+
+    private static void encode(long value, char[] dst, int offset, int length) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Отрицательное значение: " + value);
+        }
+        for (int i = offset + length - 1; i >= offset; i--) {
+            dst[i] = DIGITS[(int) (value % DIGITS.length)];
+            value /= DIGITS.length;
+        }
+        if (value != 0) {
+            throw new IllegalArgumentException("Значение не помещается в " + length + " символов base36");
+        }
+    }
+
+    private static String normalizeRunId(String runId) {
+        String upper = runId.toUpperCase();
+        if (upper.isEmpty() || upper.length() > RUN_ID_LENGTH || !upper.chars().allMatch(c -> ALPHABET.indexOf(c) >= 0)) {
+            throw new IllegalArgumentException("Id прогона должен состоять из 1-10 символов A-Z0-9: " + runId);
+        }
+        return "0".repeat(RUN_ID_LENGTH - upper.length()) + upper;
+    }
+
+    private static String randomRunId() {
+        char[] chars = new char[RUN_ID_LENGTH];
+        encode(new SecureRandom().nextLong() >>> 13, chars, 0, RUN_ID_LENGTH);
+        return new String(chars);
+    }
+
+    private static int[] digitValues() {
+        int[] values = new int[128];
+        for (int i = 0; i < ALPHABET.length(); i++) {
+            values[ALPHABET.charAt(i)] = i;
+        }
+        return values;
+    }
+}
@@ -0,0 +1,47 @@
+package com.autoqa.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Уникальные токены TokenSequencer")
+public class TokenSequencerTest {
+
+    private static final int TOKENS_PER_WORKER = 10_000;
+
+    @Test
+    @DisplayName("Воркеры, созданные друг за другом, не выдают одинаковых токенов")
+    public void workersCreatedInSequence_shouldNotOverlap() {
+        TokenSequencer first = TokenSequencer.newWorker();
+        TokenSequencer second = TokenSequencer.newWorker();
+        assertNotEquals(first.workerId(), second.workerId(), "Каждый воркер получает свой номер");
+
+        Set<String> tokens = new HashSet<>();
+        for (int i = 0; i < TOKENS_PER_WORKER; i++) {
+            tokens.add(first.next());
+        }
+        for (int i = 0; i < TOKENS_PER_WORKER; i++) {
+            String token = second.next();
+            assertTrue(tokens.add(token), "Токен второго воркера уже выдан первым: " + token);
+        }
+    }
+
+    @Test
+    @DisplayName("Генератор тестовых данных не пересекается с воркерами нагрузки")
+    public void uniqueTokensOfTestData_shouldNotOverlapWithWorker() {
+        TokenSequencer worker = TokenSequencer.newWorker();
+        Set<String> tokens = new HashSet<>();
+        for (int i = 0; i < TOKENS_PER_WORKER; i++) {
+            tokens.add(TestDataGenerator.generateUniqueToken());
+        }
+        for (int i = 0; i < TOKENS_PER_WORKER; i++) {
+            String token = worker.next();
+            assertTrue(tokens.add(token), "Токен воркера уже выдан генератором тестовых данных: " + token);
+        }
+    }
+}
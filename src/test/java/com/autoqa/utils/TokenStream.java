@@ -0,0 +1,86 @@
+package com.autoqa.utils;
+
+import com.autoqa.base.Config;
+
+/**
+ * Быстрый воспроизводимый поток токенов (SplitMix64).
+ * Один и тот же seed и номер потока всегда дают одну и ту же последовательность,
+ * поэтому упавший прогон можно повторить. Экземпляр не потокобезопасен:
+ * каждому потоку нагрузки нужен свой поток токенов.
+ */
+public class TokenStream {
+
+    private static final char[] POOL = "ABCDEF0123456789".toCharArray();
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+    private final long streamIndex;
+    private final char[] buffer = new char[Config.TOKEN_LENGTH];
+    private long state;
+
+    /**
+     * @param seed общий seed прогона
+     * @param streamIndex номер потока (например, номер виртуального пользователя)
+     */
+    public TokenStream(long seed, long streamIndex) {
+        this.seed = seed;
+        this.streamIndex = streamIndex;
+        this.state = mix(seed ^ mix(streamIndex + GOLDEN_GAMMA));
+    }
+
+    public long seed() {
+        return seed;
+    }
+
+    public long streamIndex() {
+        return streamIndex;
+    }
+
+    /**
+     * Следующий токен; внутренний буфер переиспользуется, аллоцируется только итоговая строка
+     */
+    public String next() {
+        nextInto(buffer, 0);
+        return new String(buffer);
+    }
+
+    /**
+     * Записывает следующий токен в dst начиная с offset без аллокаций
+     */
+    public void nextInto(char[] dst, int offset) {
+        // 16 символов пула = 4 бита на символ, одного long хватает на 16 символов
+        for (int i = 0; i < Config.TOKEN_LENGTH; i += 16) {
+            long bits = nextLong();
+            int end = Math.min(i + 16, Config.TOKEN_LENGTH);
+            for (int j = i; j < end; j++) {
+                dst[offset + j] = POOL[(int) (bits & 0xF)];
+                bits >>>= 4;
+            }
+        }
+    }
+
+    /**
+     * То же, что nextInto(char[], int), но в ASCII-байты (например, сразу в тело запроса)
+     */
+    public void nextInto(byte[] dst, int offset) {
+        for (int i = 0; i < Config.TOKEN_LENGTH; i += 16) {
+            long bits = nextLong();
+            int end = Math.min(i + 16, Config.TOKEN_LENGTH);
+            for (int j = i; j < end; j++) {
+                dst[offset + j] = (byte) POOL[(int) (bits & 0xF)];
+                bits >>>= 4;
+            }
+        }
+    }
+
+    private long nextLong() {
+        state += GOLDEN_GAMMA;
+        return mix(state);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
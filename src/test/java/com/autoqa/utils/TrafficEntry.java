@@ -0,0 +1,15 @@
+package com.autoqa.utils;
+
+/**
+ * Один записанный запрос к /endpoint и его результат
+ * @param offsetNanos момент отправки относительно начала записи
+ * @param latencyNanos время от отправки до ответа
+ * @param status код ответа или LatencyRecorder.NO_RESPONSE
+ * @param bodyHash CRC32C тела ответа (0, если ответа нет)
+ * @param token токен или null, если параметр не передавался
+ * @param action действие или null
+ * @param apiKey API-ключ или null
+ */
+public record TrafficEntry(long offsetNanos, long latencyNanos, int status, int bodyHash,
+                           String token, String action, String apiKey) {
+}
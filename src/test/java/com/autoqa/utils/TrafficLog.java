@@ -0,0 +1,88 @@
+package com.autoqa.utils;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Журнал, записанный TrafficRecorder: запросы упорядочены по моменту отправки
+ */
+public final class TrafficLog {
+
+    private final Instant startedAt;
+    private final List<TrafficEntry> entries;
+
+    private TrafficLog(Instant startedAt, List<TrafficEntry> entries) {
+        this.startedAt = startedAt;
+        this.entries = List.copyOf(entries);
+    }
+
+    /**
+     * Читает журнал. Незавершённая запись (запись оборвалась вместе с процессом) и всё после неё пропускаются
+     */
+    public static TrafficLog read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < TrafficRecorder.HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Некорректный размер журнала трафика " + file + ": " + size);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) != TrafficRecorder.MAGIC) {
+                throw new IOException("Файл не является журналом трафика: " + file);
+            }
+            int version = buffer.getInt(4);
+            if (version != TrafficRecorder.VERSION) {
+                throw new IOException("Неподдерживаемая версия журнала трафика: " + version);
+            }
+            Instant startedAt = Instant.ofEpochMilli(buffer.getLong(8));
+
+            List<TrafficEntry> entries = new ArrayList<>();
+            int at = TrafficRecorder.HEADER_BYTES;
+            while (at + TrafficRecorder.FIXED_RECORD_BYTES <= size) {
+                int length = buffer.getInt(at);
+                if (length < TrafficRecorder.FIXED_RECORD_BYTES || at + (long) length > size) {
+                    break;
+                }
+                String[] strings = new String[3];
+                int next = at + TrafficRecorder.FIXED_RECORD_BYTES;
+                for (int i = 0; i < strings.length; i++) {
+                    int stringLength = Short.toUnsignedInt(buffer.getShort(next));
+                    next += 2;
+                    if (stringLength != TrafficRecorder.NULL_STRING) {
+                        byte[] bytes = new byte[stringLength];
+                        buffer.get(next, bytes);
+                        strings[i] = new String(bytes, StandardCharsets.UTF_8);
+                        next += stringLength;
+                    }
+                }
+                entries.add(new TrafficEntry(buffer.getLong(at + 4), buffer.getLong(at + 12),
+                        buffer.getInt(at + 20), buffer.getInt(at + 24), strings[0], strings[1], strings[2]));
+                at += length;
+            }
+            entries.sort(Comparator.comparingLong(TrafficEntry::offsetNanos));
+            return new TrafficLog(startedAt, entries);
+        }
+    }
+
+    public Instant startedAt() {
+        return startedAt;
+    }
+
+    public List<TrafficEntry> entries() {
+        return entries;
+    }
+
+    /**
+     * Время от первой до последней отправки
+     */
+    public long spanNanos() {
+        return entries.isEmpty() ? 0 : entries.get(entries.size() - 1).offsetNanos() - entries.get(0).offsetNanos();
+    }
+}
@@ -0,0 +1,143 @@
+package com.autoqa.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Журнал трафика TrafficRecorder/TrafficLog")
+public class TrafficLogTest {
+
+    private static final long MB = 1024 * 1024;
+    private static final byte[] OK_BODY = "{\"result\":\"OK\"}".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Записи читаются с теми же полями и упорядочиваются по моменту отправки")
+    public void recordedEntries_shouldRoundTrip() throws IOException {
+        Path file = dir.resolve("traffic.bin");
+        long base = System.nanoTime();
+        try (TrafficRecorder recorder = TrafficRecorder.open(file, MB)) {
+            // Записи идут в порядке завершения: поздняя отправка записана первой
+            recorder.record(base + ms(30), ms(2), "A823456789012345678901234567890B", "LOGOUT", "key", 200, OK_BODY);
+            recorder.record(base + ms(10), ms(25), "токен", "LOGIN", null, 500, "ошибка".getBytes(StandardCharsets.UTF_8));
+            recorder.record(base + ms(20), ms(1), null, null, "key", 0, null);
+            assertEquals(3, recorder.recorded());
+        }
+
+        TrafficLog log = TrafficLog.read(file);
+        List<TrafficEntry> entries = log.entries();
+
+        assertEquals(3, entries.size());
+        assertEquals(ms(20), log.spanNanos());
+        TrafficEntry login = entries.get(0);
+        assertEquals("токен", login.token());
+        assertEquals("LOGIN", login.action());
+        assertNull(login.apiKey());
+        assertEquals(500, login.status());
+        assertEquals(ms(25), login.latencyNanos());
+        assertEquals(TrafficRecorder.bodyHash("ошибка".getBytes(StandardCharsets.UTF_8)), login.bodyHash());
+
+        TrafficEntry noResponse = entries.get(1);
+        assertNull(noResponse.token());
+        assertNull(noResponse.action());
+        assertEquals(0, noResponse.status());
+        assertEquals(0, noResponse.bodyHash());
+
+        TrafficEntry logout = entries.get(2);
+        assertEquals("A823456789012345678901234567890B", logout.token());
+        assertEquals(TrafficRecorder.bodyHash(OK_BODY), logout.bodyHash());
+        assertEquals(ms(20), logout.offsetNanos() - login.offsetNanos());
+    }
+
+    @Test
+    @DisplayName("Оборванная последняя запись и всё после неё пропускаются")
+    public void truncatedTrailingRecord_shouldBeSkipped() throws IOException {
+        Path file = dir.resolve("truncated.bin");
+        long base = System.nanoTime();
+        try (TrafficRecorder recorder = TrafficRecorder.open(file, MB)) {
+            for (int i = 0; i < 3; i++) {
+                recorder.record(base + ms(i), ms(1), "TOKEN" + i, "ACTION", "key", 200, OK_BODY);
+            }
+        }
+        long size = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            // Процесс оборвался посреди записи: хвост последней записи не дошёл до файла
+            channel.truncate(size - 5);
+        }
+
+        List<TrafficEntry> entries = TrafficLog.read(file).entries();
+
+        assertEquals(2, entries.size());
+        assertEquals("TOKEN0", entries.get(0).token());
+        assertEquals("TOKEN1", entries.get(1).token());
+    }
+
+    @Test
+    @DisplayName("Незакрытый журнал читается до первой записи с нулевой длиной")
+    public void unclosedRecorder_shouldBeReadUpToIncompleteRecord() throws IOException {
+        Path file = dir.resolve("unclosed.bin");
+        TrafficRecorder recorder = TrafficRecorder.open(file, MB);
+        try {
+            long base = System.nanoTime();
+            recorder.record(base, ms(1), "TOKEN0", "LOGIN", "key", 200, OK_BODY);
+            recorder.record(base + ms(1), ms(1), "TOKEN1", "LOGOUT", "key", 200, OK_BODY);
+
+            // Файл ещё не обрезан: после записей идут нули до конца отображения
+            assertEquals(MB, Files.size(file));
+            List<TrafficEntry> entries = TrafficLog.read(file).entries();
+            assertEquals(2, entries.size());
+            assertEquals("LOGOUT", entries.get(1).action());
+        } finally {
+            recorder.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Запросы сверх размера журнала не записываются и учитываются в dropped")
+    public void overflow_shouldDropRecords() throws IOException {
+        Path file = dir.resolve("small.bin");
+        long base = System.nanoTime();
+        long recorded;
+        try (TrafficRecorder recorder = TrafficRecorder.open(file, 200)) {
+            for (int i = 0; i < 10; i++) {
+                recorder.record(base + i, 1, "TOKEN" + i, "ACTION", "key", 200, OK_BODY);
+            }
+            assertTrue(recorder.dropped() > 0);
+            assertEquals(10, recorder.recorded() + recorder.dropped());
+            recorded = recorder.recorded();
+        }
+
+        assertEquals(recorded, TrafficLog.read(file).entries().size());
+    }
+
+    @Test
+    @DisplayName("Файл с чужим заголовком не читается как журнал")
+    public void foreignFile_shouldBeRejected() throws IOException {
+        Path file = dir.resolve("foreign.bin");
+        Files.write(file, new byte[32]);
+
+        assertThrows(IOException.class, () -> TrafficLog.read(file));
+        Files.write(file, new byte[4]);
+        assertThrows(IOException.class, () -> TrafficLog.read(file));
+    }
+
+    private static long ms(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
@@ -0,0 +1,220 @@
+package com.autoqa.utils;
+
+import com.autoqa.base.Config;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32C;
+
+/**
+ * Запись трафика к /endpoint в компактный двоичный журнал через отображённый в память файл.
+ * Поток запроса резервирует место атомарным сдвигом позиции и пишет запись прямо в отображение,
+ * без блокировок и системных вызовов; на диск страницы сбрасывает ОС.
+ *
+ * Формат (big-endian):
+ * <pre>
+ *   заголовок: MAGIC, VERSION, время начала записи (epoch ms)
+ *   запись:    длина записи (int, 0 — запись не завершена), смещение отправки от начала (long, нс),
+ *              задержка (long, нс), код ответа (int), CRC32C тела (int), token, action, apiKey
+ * </pre>
+ * Строки хранятся как длина (unsigned short, 0xFFFF — null) и UTF-8. Записи идут в порядке
+ * завершения запросов; TrafficLog упорядочивает их по моменту отправки.
+ */
+public final class TrafficRecorder implements AutoCloseable {
+
+    static final int MAGIC = 0x41515452;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int FIXED_RECORD_BYTES = 4 + 8 + 8 + 4 + 4;
+    static final int NULL_STRING = 0xFFFF;
+    static final int MAX_STRING_BYTES = 0xFFFE;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong position = new AtomicLong(HEADER_BYTES);
+    // Потоки, которые сейчас пишут в отображение: close ждёт их, прежде чем обрезать файл
+    private final AtomicInteger writers = new AtomicInteger();
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private volatile boolean closed;
+
+    private TrafficRecorder(Path file, int capacity) throws IOException {
+        this.file = file;
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putLong(8, System.currentTimeMillis());
+    }
+
+    /**
+     * Открывает новый журнал; существующий файл перезаписывается
+     * @param maxBytes предельный размер файла, не больше 2 ГБ
+     */
+    public static TrafficRecorder open(Path file, long maxBytes) throws IOException {
+        if (maxBytes <= HEADER_BYTES) {
+            throw new IllegalArgumentException("Слишком маленький размер журнала: " + maxBytes);
+        }
+        return new TrafficRecorder(file, (int) Math.min(maxBytes, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Журнал из -Dtraffic.record или null, если запись выключена. Открывается один раз на процесс
+     * и закрывается при завершении JVM
+     */
+    public static TrafficRecorder configured() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Записывает запрос и его результат; при переполнении журнала запрос только учитывается в dropped
+     * @param startNanos System.nanoTime() в момент отправки
+     * @param body тело ответа или null, если ответа нет
+     */
+    public void record(long startNanos, long latencyNanos, String token, String action, String apiKey,
+                       int status, byte[] body) {
+        writers.incrementAndGet();
+        try {
+            if (closed) {
+                dropped.increment();
+                return;
+            }
+            byte[] tokenBytes = encode(token);
+            byte[] actionBytes = encode(action);
+            byte[] apiKeyBytes = encode(apiKey);
+            int length = FIXED_RECORD_BYTES + stringBytes(tokenBytes) + stringBytes(actionBytes) + stringBytes(apiKeyBytes);
+            long reserved = position.getAndAdd(length);
+            if (reserved + length > buffer.capacity()) {
+                dropped.increment();
+                return;
+            }
+            int at = (int) reserved;
+            buffer.putLong(at + 4, startNanos - this.startNanos);
+            buffer.putLong(at + 12, latencyNanos);
+            buffer.putInt(at + 20, status);
+            buffer.putInt(at + 24, bodyHash(body));
+            int next = putString(at + FIXED_RECORD_BYTES, tokenBytes);
+            next = putString(next, actionBytes);
+            putString(next, apiKeyBytes);
+            // Длина пишется последней: запись с нулевой длиной читатель считает незавершённой
+            buffer.putInt(at, length);
+            recorded.increment();
+        } finally {
+            writers.decrementAndGet();
+        }
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    public long recorded() {
+        return recorded.sum();
+    }
+
+    /**
+     * Сколько запросов не поместилось в журнал или пришло после закрытия
+     */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Сбрасывает журнал на диск и обрезает файл до записанного размера
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        // После обрезки файла обращение к отображению за его концом приведёт к SIGBUS
+        while (writers.get() > 0) {
+            Thread.onSpinWait();
+        }
+        buffer.force();
+        channel.truncate(Math.min(position.get(), buffer.capacity()));
+        channel.close();
+    }
+
+    /**
+     * Хеш тела ответа, который хранится в журнале: CRC32C или 0, если ответа нет
+     */
+    public static int bodyHash(byte[] body) {
+        if (body == null) {
+            return 0;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+
+    private static byte[] encode(String value) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        // Длинные значения из негативных тестов обрезаются: длина строки занимает два байта
+        if (bytes.length > MAX_STRING_BYTES) {
+            byte[] truncated = new byte[MAX_STRING_BYTES];
+            System.arraycopy(bytes, 0, truncated, 0, MAX_STRING_BYTES);
+            return truncated;
+        }
+        return bytes;
+    }
+
+    private static int stringBytes(byte[] bytes) {
+        return 2 + (bytes == null ? 0 : bytes.length);
+    }
+
+    private int putString(int at, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putShort(at, (short) NULL_STRING);
+            return at + 2;
+        }
+        buffer.putShort(at, (short) bytes.length);
+        buffer.put(at + 2, bytes);
+        return at + 2 + bytes.length;
+    }
+
+    private static final class Holder {
+        private static final TrafficRecorder INSTANCE = openConfigured();
+
+        private static TrafficRecorder openConfigured() {
+            if (Config.TRAFFIC_RECORD == null || Config.TRAFFIC_RECORD.isBlank()) {
+                return null;
+            }
+            try {
+                TrafficRecorder recorder = open(Path.of(Config.TRAFFIC_RECORD), Config.TRAFFIC_RECORD_MAX_MB * 1024L * 1024L);
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    try {
+                        recorder.close();
+                        System.out.printf("Записано запросов: %d в %s, не поместилось: %d%n",
+                                recorder.recorded(), recorder.file(), recorder.dropped());
+                    } catch (IOException e) {
+                        System.err.println("Не удалось закрыть журнал трафика: " + e);
+                    }
+                }, "traffic-recorder-close"));
+                return recorder;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Не удалось открыть журнал трафика " + Config.TRAFFIC_RECORD, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package org.example;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Хранилище сессий SessionStore")
+public class SessionStoreTest {
+
+    private static final String ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    // Начальная ёмкость полосы: домашний слот токена — младшие биты хеша
+    private static final int STRIPE_CAPACITY = 64;
+    // new SessionStore(1, ...) округляет число полос до двух; полосу выбирают биты хеша от 40-го
+    private static final int STRIPES = 2;
+
+    private static String token(Random random) {
+        char[] chars = new char[EndpointHandler.TOKEN_LENGTH];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+        }
+        return new String(chars);
+    }
+
+    private static long hash(String token) {
+        return SessionStore.hash(SessionStore.pack(token, 0, 12), SessionStore.pack(token, 12, 24),
+                SessionStore.pack(token, 24, EndpointHandler.TOKEN_LENGTH));
+    }
+
+    /**
+     * Токены первой полосы с заданным домашним слотом в ней
+     */
+    private static List<String> tokensWithHomeSlot(int slot, int count, Random random) {
+        List<String> tokens = new ArrayList<>(count);
+        while (tokens.size() < count) {
+            String token = token(random);
+            long hash = hash(token);
+            if (((int) (hash >>> 40) & (STRIPES - 1)) == 0 && ((int) hash & (STRIPE_CAPACITY - 1)) == slot) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    @Test
+    @DisplayName("Упаковка токена в base36 различает токены и отвергает недопустимые символы")
+    public void pack_shouldEncodeBase36() {
+        assertEquals(0, SessionStore.pack("000000000000", 0, 12));
+        assertEquals(35, SessionStore.pack("00000000000Z", 0, 12));
+        assertEquals(36, SessionStore.pack("000000000010", 0, 12));
+        // 12 символов base36 помещаются в long без переполнения
+        assertTrue(SessionStore.pack("ZZZZZZZZZZZZ", 0, 12) > 0);
+        assertThrows(IllegalArgumentException.class, () -> SessionStore.pack("abc", 0, 3));
+    }
+
+    @Test
+    @DisplayName("Удаление из середины и начала цепочки коллизий не теряет остальные токены")
+    public void deleteInCluster_shouldKeepOtherTokensReachable() {
+        Random random = new Random(1);
+        // Последний слот таблицы: цепочка переходит через конец массива в начало
+        List<String> cluster = tokensWithHomeSlot(STRIPE_CAPACITY - 1, 5, random);
+        List<String> neighbours = tokensWithHomeSlot(0, 2, random);
+        try (SessionStore store = new SessionStore(1, Duration.ZERO)) {
+            for (String token : cluster) {
+                assertTrue(store.activate(token));
+            }
+            for (String token : neighbours) {
+                assertTrue(store.activate(token));
+            }
+
+            store.remove(cluster.get(2));
+            store.remove(cluster.get(0));
+            store.remove(neighbours.get(0));
+
+            assertFalse(store.isActive(cluster.get(0)));
+            assertFalse(store.isActive(cluster.get(2)));
+            assertFalse(store.isActive(neighbours.get(0)));
+            assertTrue(store.isActive(cluster.get(1)));
+            assertTrue(store.isActive(cluster.get(3)));
+            assertTrue(store.isActive(cluster.get(4)));
+            assertTrue(store.isActive(neighbours.get(1)));
+            assertEquals(4, store.size());
+
+            // Освободившиеся слоты переиспользуются, повторный LOGIN активного токена отклоняется
+            assertTrue(store.activate(cluster.get(0)));
+            assertFalse(store.activate(cluster.get(1)));
+            assertEquals(5, store.size());
+        }
+    }
+
+    @Test
+    @DisplayName("Случайная последовательность LOGIN/LOGOUT совпадает с эталонным множеством")
+    public void randomOperations_shouldMatchReferenceSet() {
+        Random random = new Random(42);
+        List<String> universe = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            universe.add(token(random));
+        }
+        Set<String> expected = new HashSet<>();
+        try (SessionStore store = new SessionStore(2, Duration.ZERO)) {
+            for (int i = 0; i < 50_000; i++) {
+                String token = universe.get(random.nextInt(universe.size()));
+                if (random.nextInt(3) == 0) {
+                    store.remove(token);
+                    expected.remove(token);
+                } else {
+                    assertEquals(expected.add(token), store.activate(token), "LOGIN " + token + " на шаге " + i);
+                }
+            }
+            assertEquals(expected.size(), store.size());
+            for (String token : universe) {
+                assertEquals(expected.contains(token), store.isActive(token), token);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Сессия без обращений дольше TTL вытесняется, обращения продлевают TTL")
+    public void ttl_shouldEvictIdleSessions() throws InterruptedException {
+        Random random = new Random(7);
+        String idle = token(random);
+        String touched = token(random);
+        String swept = token(random);
+        try (SessionStore store = new SessionStore(1, Duration.ofMillis(300))) {
+            assertTrue(store.activate(idle));
+            assertTrue(store.activate(touched));
+            assertTrue(store.activate(swept));
+
+            for (int i = 0; i < 4; i++) {
+                Thread.sleep(100);
+                assertTrue(store.isActive(touched), "Обращение продлевает TTL");
+            }
+            Thread.sleep(100);
+
+            // Просроченная сессия вытесняется при обращении
+            assertFalse(store.isActive(idle));
+            assertEquals(1, store.evictedCount());
+            // и при фоновой очистке
+            store.evictExpired();
+            assertEquals(2, store.evictedCount());
+            assertEquals(1, store.size());
+            assertFalse(store.isActive(swept));
+            assertTrue(store.isActive(touched));
+
+            // После вытеснения LOGIN с тем же токеном снова успешен
+            assertTrue(store.activate(idle));
+            assertEquals(2, store.size());
+        }
+    }
+
+    @Test
+    @DisplayName("LOGIN просроченной, но ещё не вычищенной сессии открывает её заново")
+    public void loginOfExpiredSession_shouldReopenIt() throws InterruptedException {
+        String token = token(new Random(11));
+        try (SessionStore store = new SessionStore(1, Duration.ofMillis(100))) {
+            assertTrue(store.activate(token));
+            Thread.sleep(250);
+
+            assertTrue(store.activate(token));
+            assertEquals(1, store.evictedCount());
+            assertEquals(1, store.size());
+            assertFalse(store.activate(token));
+        }
+    }
+}